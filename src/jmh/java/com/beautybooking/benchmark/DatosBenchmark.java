@@ -0,0 +1,166 @@
+package com.beautybooking.benchmark;
+
+import com.beautybooking.BeautybookingApplication;
+import com.beautybooking.model.FranjaHoraria;
+import com.beautybooking.model.Reserva;
+import com.beautybooking.model.Servicio;
+import com.beautybooking.model.Usuario;
+import com.beautybooking.model.enums.EstadoReserva;
+import com.beautybooking.model.enums.RolUsuario;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos y utilidades comunes de los benchmarks.
+ *
+ * Las entidades se crean en memoria, sin base de datos, con los mismos
+ * valores que usa DataLoader. Los benchmarks que necesitan base de datos
+ * arrancan la aplicación con el perfil dev (H2 en modo MySQL).
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+final class DatosBenchmark {
+
+    private DatosBenchmark() {
+    }
+
+    /**
+     * Arranca la aplicación con el perfil dev sobre una base H2 en memoria
+     * propia, con los datos de DataLoader, sin logs de SQL, sin tareas
+     * programadas y con las estadísticas de Hibernate activas.
+     *
+     * @param baseDatos Nombre de la base H2 (una por benchmark)
+     * @param propiedades Propiedades adicionales (clave=valor)
+     * @return Contexto arrancado; cerrarlo en el @TearDown
+     */
+    static ConfigurableApplicationContext arrancarAplicacion(String baseDatos, String... propiedades) {
+        List<String> todas = new ArrayList<>(List.of(
+                "spring.profiles.active=dev",
+                "spring.datasource.url=jdbc:h2:mem:" + baseDatos + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL;"
+                        + "DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+                "server.port=0",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "spring.devtools.restart.enabled=false",
+                "logging.level.root=WARN",
+                "logging.level.com.beautybooking=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "logging.level.org.springframework.web=WARN",
+                // Sin tareas programadas que consulten la BD durante la medición
+                "app.reservas.eventos.habilitado=false",
+                "app.reservas.retenciones.intervalo-ms=3600000",
+                "app.reservas.contador-plazas.recarga-ms=3600000"
+        ));
+        todas.addAll(List.of(propiedades));
+
+        // Como argumentos de línea de comandos: tienen prioridad sobre application-dev.properties
+        return new SpringApplicationBuilder(BeautybookingApplication.class)
+                .run(todas.stream().map(propiedad -> "--" + propiedad).toArray(String[]::new));
+    }
+
+    /**
+     * Estadísticas de Hibernate del contexto (sentencias preparadas, etc.).
+     *
+     * @param contexto Contexto arrancado con arrancarAplicacion
+     * @return Statistics de la SessionFactory
+     */
+    static Statistics estadisticas(ConfigurableApplicationContext contexto) {
+        return contexto.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    static Servicio servicio(long id, int aforo) {
+        Servicio servicio = new Servicio();
+        servicio.setId(id);
+        servicio.setNombre("Corte y Peinado");
+        servicio.setDescripcion("Corte de pelo profesional con lavado, peinado y acabado personalizado.");
+        servicio.setDuracionMinutos(60);
+        servicio.setPrecio(new BigDecimal("25.00"));
+        servicio.setAforoMaximo(aforo);
+        servicio.setActivo(true);
+        servicio.setCreadoEn(Instant.now());
+        return servicio;
+    }
+
+    static Usuario usuario(long id) {
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        usuario.setNombre("María García López");
+        usuario.setEmail("maria.garcia@example.com");
+        usuario.setRol(RolUsuario.CLIENTE);
+        usuario.setActivo(true);
+        return usuario;
+    }
+
+    static FranjaHoraria franja(long id, Servicio servicio, LocalDate fecha, LocalTime horaInicio) {
+        FranjaHoraria franja = new FranjaHoraria(servicio, fecha, horaInicio);
+        franja.setId(id);
+        return franja;
+    }
+
+    static Reserva reserva(long id, Usuario usuario, FranjaHoraria franja) {
+        Reserva reserva = new Reserva();
+        reserva.setId(id);
+        reserva.setUsuario(usuario);
+        reserva.setServicio(franja.getServicio());
+        reserva.setFranja(franja);
+        reserva.setFecha(franja.getFecha());
+        reserva.setHoraInicio(franja.getHoraInicio());
+        reserva.setHoraFin(franja.getHoraFin());
+        reserva.setEstado(EstadoReserva.CONFIRMADA);
+        reserva.setPrecioFinal(franja.getServicio().getPrecio());
+        reserva.setCreadoEn(Instant.now());
+        return reserva;
+    }
+
+    /**
+     * Crea un servicio con todas sus dependencias a null. Sirve para llamar
+     * a métodos que no las usan, como los mapToResponse.
+     *
+     * @param tipo Clase del servicio (un único constructor)
+     * @return Instancia sin dependencias
+     */
+    static <T> T sinDependencias(Class<T> tipo) {
+        try {
+            Constructor<?> constructor = tipo.getDeclaredConstructors()[0];
+            return tipo.cast(constructor.newInstance(new Object[constructor.getParameterCount()]));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se puede crear " + tipo.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Obtiene un método privado de instancia, ya ligado a la instancia dada.
+     *
+     * @param instancia Objeto sobre el que se invoca
+     * @param nombre Nombre del método
+     * @param retorno Tipo devuelto
+     * @param parametro Tipo del único parámetro
+     * @return MethodHandle (parametro) -> retorno
+     */
+    static MethodHandle metodoPrivado(Object instancia, String nombre, Class<?> retorno, Class<?> parametro) {
+        try {
+            return MethodHandles.privateLookupIn(instancia.getClass(), MethodHandles.lookup())
+                    .findVirtual(instancia.getClass(), nombre, MethodType.methodType(retorno, parametro))
+                    .bindTo(instancia);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se puede acceder a " + nombre, e);
+        }
+    }
+}
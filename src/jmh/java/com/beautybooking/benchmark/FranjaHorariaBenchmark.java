@@ -0,0 +1,60 @@
+package com.beautybooking.benchmark;
+
+import com.beautybooking.model.FranjaHoraria;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark del control de plazas de FranjaHoraria.
+ *
+ * decrementarPlazas se mide junto con incrementarPlazas para que la franja
+ * no se quede sin plazas entre invocaciones (como una reserva y su cancelación).
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FranjaHorariaBenchmark {
+
+    @Param({"1", "5"})
+    private int aforo;
+
+    private FranjaHoraria franja;
+
+    @Setup
+    public void preparar() {
+        franja = DatosBenchmark.franja(1L, DatosBenchmark.servicio(1L, aforo),
+                LocalDate.now().plusDays(1), LocalTime.of(10, 0));
+    }
+
+    @Benchmark
+    public boolean tieneDisponibilidad() {
+        return franja.tieneDisponibilidad();
+    }
+
+    @Benchmark
+    public Integer decrementarYLiberarPlaza() {
+        franja.decrementarPlazas();
+        franja.incrementarPlazas();
+        return franja.getPlazasDisponibles();
+    }
+}
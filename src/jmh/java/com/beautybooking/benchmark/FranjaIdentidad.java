@@ -0,0 +1,52 @@
+package com.beautybooking.benchmark;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Franja horaria con id IDENTITY (AUTO_INCREMENT), como estaban mapeadas
+ * las entidades antes del generador de tabla secuencias_id.
+ *
+ * Solo la usa InsercionMasivaBenchmark como referencia: se mapea sobre la
+ * misma tabla franjas_horarias, cuya columna id sigue siendo AUTO_INCREMENT.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Entity
+@Table(name = "franjas_horarias")
+@Data
+@NoArgsConstructor
+public class FranjaIdentidad {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "servicio_id", nullable = false)
+    private Long servicioId;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Column(name = "hora_inicio", nullable = false)
+    private LocalTime horaInicio;
+
+    @Column(name = "hora_fin", nullable = false)
+    private LocalTime horaFin;
+
+    @Column(name = "plazas_totales", nullable = false)
+    private Integer plazasTotales;
+
+    @Column(name = "plazas_disponibles", nullable = false)
+    private Integer plazasDisponibles;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+}
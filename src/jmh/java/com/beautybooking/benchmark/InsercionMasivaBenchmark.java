@@ -0,0 +1,177 @@
+package com.beautybooking.benchmark;
+
+import com.beautybooking.model.FranjaHoraria;
+import com.beautybooking.model.Servicio;
+import com.beautybooking.repository.FranjaHorariaRepository;
+import com.beautybooking.repository.ServicioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la inserción masiva de franjas con JPA contra H2 en modo
+ * MySQL (perfil dev), según el generador de ids y los lotes JDBC.
+ *
+ * - generador=TABLE: FranjaHoraria con el generador de tabla secuencias_id
+ *   (pooled-lo), insertada con saveAll
+ * - generador=IDENTITY: FranjaIdentidad, la misma tabla con id AUTO_INCREMENT,
+ *   como antes del cambio. Hibernate necesita el id generado de cada fila,
+ *   así que no agrupa los INSERT aunque haya batch_size
+ * - batchSize=0: hibernate.jdbc.batch_size desactivado
+ * - batchSize=50: la configuración de application.properties
+ *
+ * Cada invocación inserta las franjas de un año sin franjas y deshace la
+ * transacción tras el flush. El contador auxiliar "sentencias" suma las
+ * sentencias preparadas: sin lotes (o con IDENTITY), una por fila; con
+ * TABLE y lotes, el INSERT se prepara una vez por flush y se envía en
+ * franjas / batchSize lotes.
+ *
+ * En H2 embebido no hay viaje de red, así que los lotes apenas cambian la
+ * latencia; lo que se compara entre versiones es el número de sentencias.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsercionMasivaBenchmark {
+
+    @Param({"IDENTITY", "TABLE"})
+    private String generador;
+
+    @Param({"0", "50"})
+    private int batchSize;
+
+    @Param({"1000"})
+    private int franjas;
+
+    private ConfigurableApplicationContext contexto;
+    private TransactionTemplate transactionTemplate;
+    private FranjaHorariaRepository franjaRepository;
+    private ServicioRepository servicioRepository;
+    private EntityManager entityManager;
+    private Statistics estadisticas;
+    private Long servicioId;
+
+    @Setup(Level.Trial)
+    public void arrancar() {
+        contexto = DatosBenchmark.arrancarAplicacion("insercion" + generador + batchSize,
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        transactionTemplate = contexto.getBean(TransactionTemplate.class);
+        franjaRepository = contexto.getBean(FranjaHorariaRepository.class);
+        servicioRepository = contexto.getBean(ServicioRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                contexto.getBean(EntityManagerFactory.class));
+        estadisticas = DatosBenchmark.estadisticas(contexto);
+        servicioId = servicioRepository.findAll().get(0).getId();
+
+        // Los datos de DataLoader llevan ids de secuencias_id; el AUTO_INCREMENT
+        // de H2 no los ha visto, así que se adelanta para no repetirlos
+        contexto.getBean(JdbcTemplate.class).execute(
+                "ALTER TABLE franjas_horarias ALTER COLUMN id RESTART WITH 1000000");
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Integer insertar(Sentencias sentencias) {
+        long antes = estadisticas.getPrepareStatementCount();
+
+        Integer insertadas = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+
+            if ("IDENTITY".equals(generador)) {
+                insertarConIdentity();
+            } else {
+                insertarConTabla();
+            }
+            entityManager.flush();
+            return franjas;
+        });
+
+        sentencias.sentencias += estadisticas.getPrepareStatementCount() - antes;
+        sentencias.filas += franjas;
+        return insertadas;
+    }
+
+    private void insertarConTabla() {
+        Servicio servicio = servicioRepository.getReferenceById(servicioId);
+        List<FranjaHoraria> nuevas = new ArrayList<>(franjas);
+        LocalDate fecha = LocalDate.now().plusYears(1);
+        for (int i = 0; i < franjas; i++) {
+            FranjaHoraria franja = new FranjaHoraria();
+            franja.setServicio(servicio);
+            franja.setFecha(fecha.plusDays(i / 10));
+            franja.setHoraInicio(LocalTime.of(9 + i % 10, 0));
+            franja.setHoraFin(LocalTime.of(10 + i % 10, 0));
+            franja.setPlazasTotales(1);
+            franja.setPlazasDisponibles(1);
+            nuevas.add(franja);
+        }
+        franjaRepository.saveAll(nuevas);
+    }
+
+    private void insertarConIdentity() {
+        LocalDate fecha = LocalDate.now().plusYears(1);
+        for (int i = 0; i < franjas; i++) {
+            FranjaIdentidad franja = new FranjaIdentidad();
+            franja.setServicioId(servicioId);
+            franja.setFecha(fecha.plusDays(i / 10));
+            franja.setHoraInicio(LocalTime.of(9 + i % 10, 0));
+            franja.setHoraFin(LocalTime.of(10 + i % 10, 0));
+            franja.setPlazasTotales(1);
+            franja.setPlazasDisponibles(1);
+            entityManager.persist(franja);
+        }
+    }
+
+    /**
+     * Contadores auxiliares: sentencias preparadas y filas insertadas en
+     * cada iteración.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sentencias {
+
+        public long sentencias;
+        public long filas;
+
+        @Setup(Level.Iteration)
+        public void reiniciar() {
+            sentencias = 0;
+            filas = 0;
+        }
+    }
+}
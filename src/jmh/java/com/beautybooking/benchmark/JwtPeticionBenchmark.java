@@ -0,0 +1,114 @@
+package com.beautybooking.benchmark;
+
+import com.beautybooking.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Benchmark del coste de JWT por petición en JwtAuthFilter, antes y después
+ * de parsear cada token una sola vez.
+ *
+ * - antes: el filtro anterior. extractUsername, validateToken (que vuelve a
+ *   leer el email y la expiración) y, con confiar-rol, extractRol; cada
+ *   lectura construía la clave HMAC y un parser nuevos
+ * - ahora: el filtro actual. Un parseClaims con la clave y el parser
+ *   construidos al arrancar, y el resto se lee de los claims
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtPeticionBenchmark {
+
+    // Clave HS256 de prueba (al menos 256 bits)
+    static final String SECRET = "clave-de-benchmark-con-al-menos-256-bits-para-hs256";
+
+    /**
+     * app.seguridad.jwt.confiar-rol: añade la lectura del rol del token.
+     */
+    @Param({"false", "true"})
+    private boolean confiarRol;
+
+    private JwtUtil jwtUtil;
+    private UserDetails usuario;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expirationMs", 86_400_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "inicializar");
+
+        usuario = User.withUsername("maria.garcia@example.com")
+                .password("no-se-usa")
+                .authorities("ROLE_CLIENTE")
+                .build();
+        token = jwtUtil.generateToken(usuario);
+    }
+
+    @Benchmark
+    public void antes(Blackhole bh) {
+        String email = extraerComoAntes(token, Claims::getSubject);
+        if (confiarRol) {
+            bh.consume(extraerComoAntes(token, claims -> claims.get(JwtUtil.CLAIM_ROL, String.class)));
+        }
+
+        // validateToken(token, userDetails): otra vez el email y la expiración
+        boolean valido = extraerComoAntes(token, Claims::getSubject).equals(usuario.getUsername())
+                && !extraerComoAntes(token, Claims::getExpiration).before(new Date());
+        bh.consume(email);
+        bh.consume(valido);
+    }
+
+    @Benchmark
+    public void ahora(Blackhole bh) {
+        Claims claims = jwtUtil.parseClaims(token);
+        if (confiarRol) {
+            bh.consume(claims.get(JwtUtil.CLAIM_ROL, String.class));
+        }
+        bh.consume(claims.getSubject().equals(usuario.getUsername()));
+    }
+
+    /**
+     * Lectura de un claim como la hacía JwtUtil antes del cambio: clave y
+     * parser nuevos en cada llamada.
+     */
+    private static <T> T extraerComoAntes(String token, Function<Claims, T> claimsResolver) {
+        SecretKey clave = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(clave)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        return claimsResolver.apply(claims);
+    }
+}
@@ -0,0 +1,71 @@
+package com.beautybooking.benchmark;
+
+import com.beautybooking.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la generación y validación de tokens en JwtUtil.
+ *
+ * JwtUtil se configura como lo haría Spring (jwt.secret y jwt.expiration-ms)
+ * y se inicializa una vez, igual que al arrancar la aplicación.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private UserDetails usuario;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", JwtPeticionBenchmark.SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expirationMs", 86_400_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "inicializar");
+
+        usuario = User.withUsername("maria.garcia@example.com")
+                .password("no-se-usa")
+                .authorities("ROLE_CLIENTE")
+                .build();
+        token = jwtUtil.generateToken(usuario);
+    }
+
+    @Benchmark
+    public String generarToken() {
+        return jwtUtil.generateToken(usuario);
+    }
+
+    @Benchmark
+    public Claims validarToken() {
+        return jwtUtil.parseClaims(token);
+    }
+
+    @Benchmark
+    public Boolean validarTokenContraUsuario() {
+        return jwtUtil.validateToken(token, usuario);
+    }
+}
@@ -0,0 +1,83 @@
+package com.beautybooking.benchmark;
+
+import com.beautybooking.dto.response.FranjaResponse;
+import com.beautybooking.dto.response.ReservaResponse;
+import com.beautybooking.dto.response.ServicioResponse;
+import com.beautybooking.model.FranjaHoraria;
+import com.beautybooking.model.Reserva;
+import com.beautybooking.model.Servicio;
+import com.beautybooking.service.FranjaHorariaService;
+import com.beautybooking.service.ReservaService;
+import com.beautybooking.service.ServicioService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de los mapToResponse (entidad a DTO) de ReservaService,
+ * FranjaHorariaService y ServicioService.
+ *
+ * Los métodos son privados: se invocan con MethodHandle sobre servicios sin
+ * dependencias, ya que el mapeo no las usa.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeoResponsesBenchmark {
+
+    private MethodHandle mapearReserva;
+    private MethodHandle mapearFranja;
+    private MethodHandle mapearServicio;
+
+    private Reserva reserva;
+    private FranjaHoraria franja;
+    private Servicio servicio;
+
+    @Setup
+    public void preparar() {
+        mapearReserva = DatosBenchmark.metodoPrivado(DatosBenchmark.sinDependencias(ReservaService.class),
+                "mapToResponse", ReservaResponse.class, Reserva.class);
+        mapearFranja = DatosBenchmark.metodoPrivado(DatosBenchmark.sinDependencias(FranjaHorariaService.class),
+                "mapToResponse", FranjaResponse.class, FranjaHoraria.class);
+        mapearServicio = DatosBenchmark.metodoPrivado(DatosBenchmark.sinDependencias(ServicioService.class),
+                "mapToResponse", ServicioResponse.class, Servicio.class);
+
+        servicio = DatosBenchmark.servicio(1L, 2);
+        franja = DatosBenchmark.franja(1L, servicio, LocalDate.now().plusDays(1), LocalTime.of(10, 0));
+        reserva = DatosBenchmark.reserva(1L, DatosBenchmark.usuario(2L), franja);
+    }
+
+    @Benchmark
+    public ReservaResponse reserva() throws Throwable {
+        return (ReservaResponse) mapearReserva.invokeExact(reserva);
+    }
+
+    @Benchmark
+    public FranjaResponse franja() throws Throwable {
+        return (FranjaResponse) mapearFranja.invokeExact(franja);
+    }
+
+    @Benchmark
+    public ServicioResponse servicio() throws Throwable {
+        return (ServicioResponse) mapearServicio.invokeExact(servicio);
+    }
+}
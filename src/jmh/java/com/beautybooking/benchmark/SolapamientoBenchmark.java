@@ -0,0 +1,81 @@
+package com.beautybooking.benchmark;
+
+import com.beautybooking.model.FranjaHoraria;
+import com.beautybooking.model.Reserva;
+import com.beautybooking.model.Servicio;
+import com.beautybooking.model.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark del predicado de solapamiento de editarReserva: recorre las
+ * reservas activas del usuario, excluye la editada y comprueba
+ * Reserva.solapaCon con la nueva franja.
+ *
+ * Las reservas se reparten en días consecutivos (cuatro por día); la nueva
+ * franja cae el último día sin solapar, que es el peor caso (se recorren todas).
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolapamientoBenchmark {
+
+    @Param({"5", "50", "500"})
+    private int reservasActivas;
+
+    private List<Reserva> reservas;
+    private Long reservaEditadaId;
+    private FranjaHoraria nuevaFranja;
+
+    @Setup
+    public void preparar() {
+        Servicio servicio = DatosBenchmark.servicio(1L, 1);
+        Usuario usuario = DatosBenchmark.usuario(2L);
+        LocalDate hoy = LocalDate.now();
+
+        reservas = new ArrayList<>(reservasActivas);
+        for (int i = 0; i < reservasActivas; i++) {
+            FranjaHoraria franja = DatosBenchmark.franja(i + 1L, servicio,
+                    hoy.plusDays(i / 4), LocalTime.of(9 + 2 * (i % 4), 0));
+            reservas.add(DatosBenchmark.reserva(i + 1L, usuario, franja));
+        }
+
+        reservaEditadaId = 1L;
+        nuevaFranja = DatosBenchmark.franja(reservasActivas + 1L, servicio,
+                hoy.plusDays((reservasActivas - 1) / 4), LocalTime.of(17, 30));
+    }
+
+    @Benchmark
+    public boolean tieneSolapamiento() {
+        Long id = reservaEditadaId;
+        return reservas.stream()
+                .filter(r -> !r.getId().equals(id))
+                .anyMatch(r -> r.solapaCon(
+                        nuevaFranja.getFecha(),
+                        nuevaFranja.getHoraInicio(),
+                        nuevaFranja.getHoraFin()
+                ));
+    }
+}
@@ -0,0 +1,166 @@
+package com.beautybooking.benchmark;
+
+import com.beautybooking.dto.request.ReservaRequest;
+import com.beautybooking.model.FranjaHoraria;
+import com.beautybooking.model.Usuario;
+import com.beautybooking.model.enums.EstadoReserva;
+import com.beautybooking.repository.FranjaHorariaRepository;
+import com.beautybooking.repository.ReservaRepository;
+import com.beautybooking.repository.UsuarioRepository;
+import com.beautybooking.service.ReservaService;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark de la validación previa de createReserva contra H2 en modo MySQL
+ * (perfil dev), con la estrategia PESIMISTA.
+ *
+ * - antes: findByEmail, findByIdWithLock, carga perezosa del servicio,
+ *   existsByUsuarioIdAndFranjaId y existsSolapamiento (5 sentencias)
+ * - ahora: findByIdWithLock y findValidacionReserva, que trae usuario,
+ *   franja con su servicio y los dos flags (2 sentencias)
+ *
+ * Cada validación va en su propia transacción, que se deshace. El contador
+ * auxiliar "sentencias" suma las sentencias preparadas (estadísticas de
+ * Hibernate); dividido entre "validaciones" da los viajes a la BD por reserva.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidacionReservaBenchmark {
+
+    private static final String EMAIL = "maria.garcia@example.com";
+    private static final List<EstadoReserva> ESTADOS_ACTIVOS = List.of(
+            EstadoReserva.PENDIENTE,
+            EstadoReserva.CONFIRMADA
+    );
+
+    private ConfigurableApplicationContext contexto;
+    private TransactionTemplate transactionTemplate;
+    private UsuarioRepository usuarioRepository;
+    private FranjaHorariaRepository franjaRepository;
+    private ReservaRepository reservaRepository;
+    private Statistics estadisticas;
+    private Long franjaId;
+
+    @Setup(Level.Trial)
+    public void arrancar() {
+        contexto = DatosBenchmark.arrancarAplicacion("validacion");
+        transactionTemplate = contexto.getBean(TransactionTemplate.class);
+        usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        franjaRepository = contexto.getBean(FranjaHorariaRepository.class);
+        reservaRepository = contexto.getBean(ReservaRepository.class);
+        estadisticas = DatosBenchmark.estadisticas(contexto);
+
+        // La usuaria ya tiene reservas (la primera franja de cada día) para que
+        // las comprobaciones de duplicado y solapamiento encuentren filas
+        ReservaService reservaService = contexto.getBean(ReservaService.class);
+        LocalDate manana = LocalDate.now().plusDays(1);
+        List<FranjaHoraria> franjas = franjaRepository.findByFechaBetweenOrderByFechaAscHoraInicioAsc(
+                manana, manana.plusDays(5));
+        LocalDate dia = null;
+        for (FranjaHoraria franja : franjas) {
+            if (!franja.getFecha().equals(dia)) {
+                reservaService.createReserva(EMAIL, new ReservaRequest(franja.getId(), null, null));
+                dia = franja.getFecha();
+            }
+        }
+
+        // Franja a validar: la última de mañana, sin duplicado ni solapamiento (recorre todo)
+        franjaId = franjas.stream()
+                .filter(franja -> franja.getFecha().equals(manana))
+                .reduce((primera, segunda) -> segunda)
+                .orElseThrow()
+                .getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Boolean antes(Sentencias sentencias) {
+        return sentencias.contar(() -> transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+
+            Usuario usuario = usuarioRepository.findByEmail(EMAIL).orElseThrow();
+            FranjaHoraria franja = franjaRepository.findByIdWithLock(franjaId).orElseThrow();
+            franja.getServicio().getPrecio();
+
+            boolean duplicada = reservaRepository.existsByUsuarioIdAndFranjaId(usuario.getId(), franja.getId());
+            boolean solapada = reservaRepository.existsSolapamiento(usuario, franja.getFecha(),
+                    franja.getHoraInicio(), franja.getHoraFin(), ESTADOS_ACTIVOS);
+            return duplicada || solapada;
+        }));
+    }
+
+    @Benchmark
+    public Boolean ahora(Sentencias sentencias) {
+        return sentencias.contar(() -> transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+
+            franjaRepository.findByIdWithLock(franjaId).orElseThrow();
+            ReservaRepository.ValidacionReserva validacion =
+                    reservaRepository.findValidacionReserva(EMAIL, franjaId, ESTADOS_ACTIVOS).orElseThrow();
+            validacion.getFranja().getServicio().getPrecio();
+
+            return validacion.getDuplicada() || validacion.getSolapada();
+        }));
+    }
+
+    /**
+     * Contadores auxiliares: sentencias preparadas y validaciones hechas
+     * en cada iteración.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sentencias {
+
+        public long sentencias;
+        public long validaciones;
+
+        private Statistics estadisticas;
+
+        @Setup(Level.Iteration)
+        public void reiniciar(ValidacionReservaBenchmark benchmark) {
+            estadisticas = benchmark.estadisticas;
+            sentencias = 0;
+            validaciones = 0;
+        }
+
+        Boolean contar(Supplier<Boolean> validacion) {
+            long antes = estadisticas.getPrepareStatementCount();
+            Boolean resultado = validacion.get();
+            sentencias += estadisticas.getPrepareStatementCount() - antes;
+            validaciones++;
+            return resultado;
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package com.beautybooking.config;
 
-import com.beautybooking.model.FranjaHoraria;
+import com.beautybooking.dto.request.PlantillaFranjasRequest;
 import com.beautybooking.model.Servicio;
 import com.beautybooking.model.Usuario;
 import com.beautybooking.model.enums.RolUsuario;
-import com.beautybooking.repository.FranjaHorariaRepository;
 import com.beautybooking.repository.ServicioRepository;
 import com.beautybooking.repository.UsuarioRepository;
+import com.beautybooking.service.GeneracionFranjasService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.ApplicationArguments;
@@ -17,9 +17,11 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 /**
@@ -47,7 +49,7 @@ public class DataLoader implements ApplicationRunner {
 
     private final UsuarioRepository usuarioRepository;
     private final ServicioRepository servicioRepository;
-    private final FranjaHorariaRepository franjaRepository;
+    private final GeneracionFranjasService generacionFranjasService;
     private final PasswordEncoder passwordEncoder;
 
     /**
@@ -201,7 +203,8 @@ public class DataLoader implements ApplicationRunner {
     /**
      * Carga franjas horarias para los próximos 7 días.
      *
-     * Genera franjas de 9:00 a 20:00 para cada servicio activo.
+     * Genera franjas de 9:00 a 20:00 para cada servicio activo con una
+     * plantilla semanal (todos los días), insertadas en bloque.
      * Esto permite tener disponibilidad inmediata para hacer pruebas.
      */
     private void cargarFranjasHorarias() {
@@ -217,43 +220,21 @@ public class DataLoader implements ApplicationRunner {
         int franjasCreadas = 0;
         LocalDate fechaInicio = LocalDate.now();
 
-        // Crear franjas para los próximos 7 días
-        for (int dia = 0; dia < 7; dia++) {
-            LocalDate fecha = fechaInicio.plusDays(dia);
-
-            for (Servicio servicio : servicios) {
-                // Crear franjas de 9:00 a 20:00 (horario de ejemplo)
-                // Ajustar según necesidades reales del negocio
-                LocalTime horaInicio = LocalTime.of(9, 0);
-                LocalTime horaFin = LocalTime.of(20, 0);
-
-                while (horaInicio.plusMinutes(servicio.getDuracionMinutos()).isBefore(horaFin) ||
-                        horaInicio.plusMinutes(servicio.getDuracionMinutos()).equals(horaFin)) {
-
-                    // Verificar que la franja no exista ya
-                    boolean existe = franjaRepository.existsByServicioIdAndFechaAndHoraInicio(
-                            servicio.getId(), fecha, horaInicio
-                    );
-
-                    if (!existe) {
-                        FranjaHoraria franja = new FranjaHoraria();
-                        franja.setServicio(servicio);
-                        franja.setFecha(fecha);
-                        franja.setHoraInicio(horaInicio);
-                        franja.setHoraFin(horaInicio.plusMinutes(servicio.getDuracionMinutos()));
-                        franja.setPlazasTotales(servicio.getAforoMaximo());
-                        franja.setPlazasDisponibles(servicio.getAforoMaximo());
-
-                        franjaRepository.save(franja);
-                        franjasCreadas++;
-                    }
-
-                    // Avanzar a la siguiente franja
-                    horaInicio = horaInicio.plusMinutes(servicio.getDuracionMinutos());
-                }
-            }
+        for (Servicio servicio : servicios) {
+            // Horario de ejemplo: de 9:00 a 20:00 todos los días
+            // Ajustar según necesidades reales del negocio
+            PlantillaFranjasRequest plantilla = new PlantillaFranjasRequest();
+            plantilla.setServicioId(servicio.getId());
+            plantilla.setDesde(fechaInicio);
+            plantilla.setHasta(fechaInicio.plusDays(6));
+            plantilla.setDiasSemana(EnumSet.allOf(DayOfWeek.class));
+            plantilla.setTramos(List.of(
+                    new PlantillaFranjasRequest.TramoHorario(LocalTime.of(9, 0), LocalTime.of(20, 0))
+            ));
+
+            franjasCreadas += generacionFranjasService.generar(plantilla).getFranjasCreadas();
         }
 
         log.info("✓ {} franjas horarias creadas para los próximos 7 días", franjasCreadas);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,206 @@
+package com.beautybooking.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limitador de conexiones concurrentes a la base de datos.
+ *
+ * Con hilos virtuales (spring.threads.virtual.enabled=true) Tomcat ya no limita
+ * las peticiones en curso: miles de peticiones pueden llegar a la vez al pool
+ * de HikariCP y esperar hasta su connection-timeout. Este limitador envuelve el
+ * DataSource con un semáforo justo (FIFO):
+ * - Cada conexión obtenida ocupa un permiso hasta que se cierra
+ * - Si no hay permiso en app.db.limitador.espera-ms, la petición falla rápido
+ *   y se responde 503 en lugar de acumular esperas en el pool
+ *
+ * Una conexión que el mismo hilo abre mientras ya tiene otra (el generador de
+ * ids de servicios y franjas reserva su bloque en secuencias_id con una segunda
+ * conexión dentro de la transacción) no ocupa otro permiso: si lo esperase,
+ * las transacciones que tienen todos los permisos se bloquearían entre sí.
+ * Por eso el número de permisos debe quedar por debajo del tamaño máximo del
+ * pool, con margen para esas segundas conexiones.
+ *
+ * Se activa con app.db.limitador.habilitado=true.
+ *
+ * Métricas (registro global de Micrometer, el post-procesador se crea antes
+ * que el MeterRegistry): db.limitador.espera (peticiones esperando permiso)
+ * y db.limitador.rechazos (peticiones rechazadas por agotar la espera).
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.db.limitador.habilitado", havingValue = "true")
+@Slf4j
+public class LimitadorConexionesConfig implements BeanPostProcessor {
+
+    /**
+     * Conexiones simultáneas permitidas.
+     * Se inyecta desde application.properties (app.db.limitador.max-concurrentes).
+     */
+    @Value("${app.db.limitador.max-concurrentes:8}")
+    private int maxConcurrentes;
+
+    /**
+     * Espera máxima por un permiso antes de rechazar (ms).
+     * Se inyecta desde application.properties (app.db.limitador.espera-ms).
+     */
+    @Value("${app.db.limitador.espera-ms:2000}")
+    private long esperaMs;
+
+    /**
+     * Envuelve el DataSource de la aplicación con el limitador.
+     */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof LimitadorConexionesDataSource)) {
+            log.info("Limitador de conexiones activo: {} conexiones simultáneas, espera máxima {} ms",
+                    maxConcurrentes, esperaMs);
+            return new LimitadorConexionesDataSource(dataSource, maxConcurrentes, esperaMs);
+        }
+        return bean;
+    }
+
+    /**
+     * DataSource que reparte un número limitado de permisos entre las conexiones.
+     * El permiso se devuelve al cerrar la conexión (devolverla al pool).
+     * Las conexiones se cierran en el hilo que las abrió (transacciones de Spring).
+     */
+    static class LimitadorConexionesDataSource extends DelegatingDataSource {
+
+        private final Semaphore permisos;
+        private final long esperaMs;
+        private final Counter rechazos;
+
+        // Conexiones abiertas por el hilo actual: solo la primera ocupa permiso
+        private final ThreadLocal<Integer> abiertasDelHilo = ThreadLocal.withInitial(() -> 0);
+
+        LimitadorConexionesDataSource(DataSource dataSource, int maxConcurrentes, long esperaMs) {
+            super(dataSource);
+            this.permisos = new Semaphore(maxConcurrentes, true);
+            this.esperaMs = esperaMs;
+
+            Gauge.builder("db.limitador.espera", permisos, Semaphore::getQueueLength)
+                    .description("Peticiones esperando una conexión del limitador")
+                    .register(Metrics.globalRegistry);
+            this.rechazos = Counter.builder("db.limitador.rechazos")
+                    .description("Peticiones rechazadas por no obtener conexión a tiempo")
+                    .register(Metrics.globalRegistry);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            boolean conPermiso = adquirirPermisoSiEsLaPrimera();
+            try {
+                return registrar(super.getConnection(), conPermiso);
+            } catch (SQLException | RuntimeException e) {
+                if (conPermiso) {
+                    permisos.release();
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            boolean conPermiso = adquirirPermisoSiEsLaPrimera();
+            try {
+                return registrar(super.getConnection(username, password), conPermiso);
+            } catch (SQLException | RuntimeException e) {
+                if (conPermiso) {
+                    permisos.release();
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Espera un permiso si el hilo no tiene ya una conexión abierta.
+         *
+         * @return true si se ha ocupado un permiso
+         * @throws SQLTransientConnectionException si se agota la espera o se interrumpe el hilo
+         */
+        private boolean adquirirPermisoSiEsLaPrimera() throws SQLException {
+            if (abiertasDelHilo.get() > 0) {
+                return false;
+            }
+            adquirirPermiso();
+            return true;
+        }
+
+        /**
+         * Espera un permiso como máximo esperaMs.
+         *
+         * @throws SQLTransientConnectionException si se agota la espera o se interrumpe el hilo
+         */
+        private void adquirirPermiso() throws SQLException {
+            try {
+                if (!permisos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS)) {
+                    rechazos.increment();
+                    log.warn("Conexión rechazada: {} peticiones esperando a la base de datos",
+                            permisos.getQueueLength());
+                    throw new SQLTransientConnectionException(
+                            "Base de datos saturada: no hay conexión disponible en " + esperaMs + " ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Espera de conexión interrumpida", e);
+            }
+        }
+
+        /**
+         * Envuelve la conexión para devolver el permiso al cerrarla (una sola vez)
+         * y la cuenta como abierta por el hilo actual hasta entonces.
+         *
+         * @param conexion Conexión obtenida del pool
+         * @param conPermiso Si la conexión ocupa un permiso
+         * @return Conexión que libera el permiso en close()
+         */
+        private Connection registrar(Connection conexion, boolean conPermiso) {
+            abiertasDelHilo.set(abiertasDelHilo.get() + 1);
+            AtomicBoolean liberado = new AtomicBoolean(false);
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, metodo, args) -> {
+                        if ("close".equals(metodo.getName())) {
+                            try {
+                                conexion.close();
+                            } finally {
+                                if (liberado.compareAndSet(false, true)) {
+                                    abiertasDelHilo.set(abiertasDelHilo.get() - 1);
+                                    if (conPermiso) {
+                                        permisos.release();
+                                    }
+                                }
+                            }
+                            return null;
+                        }
+                        try {
+                            return metodo.invoke(conexion, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.beautybooking.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuración de tareas programadas.
+ *
+ * Habilita @Scheduled (purga periódica de franjas pasadas). Las tareas se
+ * ejecutan en el planificador de Spring Boot, fuera de las peticiones HTTP.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@EnableScheduling
+public class ProgramacionConfig {
+}
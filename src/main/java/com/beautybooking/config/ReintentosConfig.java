@@ -0,0 +1,70 @@
+package com.beautybooking.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.annotation.EnableRetry;
+
+/**
+ * Configuración de reintentos de operaciones de reservas.
+ *
+ * Habilita @Retryable (los reintentos envuelven a la transacción, de modo que
+ * cada intento relee la franja) y registra métricas de los conflictos:
+ * - reservas.conflictos.version: conflictos de versión por operación
+ * - reservas.reintentos.agotados: operaciones que fallan tras agotar los reintentos
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@EnableRetry
+public class ReintentosConfig {
+
+    /**
+     * Listener de reintentos que cuenta los conflictos de versión.
+     * La etiqueta "operacion" es el label del @Retryable (nombre del método).
+     *
+     * @param meterRegistry Registro de métricas de Micrometer
+     * @return RetryListener aplicado a todos los @Retryable
+     */
+    @Bean
+    public RetryListener metricasReintentosListener(MeterRegistry meterRegistry) {
+        return new RetryListener() {
+
+            @Override
+            public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                         Throwable throwable) {
+                if (throwable instanceof OptimisticLockingFailureException) {
+                    Counter.builder("reservas.conflictos.version")
+                            .description("Conflictos de versión al modificar franjas")
+                            .tag("operacion", operacion(context))
+                            .register(meterRegistry)
+                            .increment();
+                }
+            }
+
+            @Override
+            public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                                       Throwable throwable) {
+                if (throwable instanceof OptimisticLockingFailureException) {
+                    Counter.builder("reservas.reintentos.agotados")
+                            .description("Operaciones rechazadas tras agotar los reintentos")
+                            .tag("operacion", operacion(context))
+                            .register(meterRegistry)
+                            .increment();
+                }
+            }
+        };
+    }
+
+    private static String operacion(RetryContext context) {
+        Object nombre = context.getAttribute(RetryContext.NAME);
+        return nombre != null ? nombre.toString() : "desconocida";
+    }
+}
@@ -75,6 +75,7 @@ public class SecurityConfig {
 
                         // Actuator health
                         .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ADMIN")
 
                         // Rutas de administración - solo ADMIN
                         .requestMatchers("/admin/**").hasAuthority("ADMIN")
@@ -1,22 +1,30 @@
 package com.beautybooking.controller;
 
 import com.beautybooking.dto.request.FranjaRequest;
+import com.beautybooking.dto.request.PlantillaFranjasRequest;
 import com.beautybooking.dto.request.ReservaRequest;
 import com.beautybooking.dto.request.ServicioRequest;
 import com.beautybooking.dto.response.*;
 import com.beautybooking.exception.BusinessException;
 import com.beautybooking.exception.ResourceNotFoundException;
+import com.beautybooking.model.enums.EstadoReserva;
+import com.beautybooking.model.enums.FormatoExportacion;
+import com.beautybooking.service.ExportacionReservasService;
 import com.beautybooking.service.FranjaHorariaService;
+import com.beautybooking.service.GeneracionFranjasService;
 import com.beautybooking.service.ReservaService;
 import com.beautybooking.service.ServicioService;
 import com.beautybooking.service.UsuarioService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -46,6 +54,8 @@ public class AdminController {
     private final FranjaHorariaService franjaService;
     private final ReservaService reservaService;
     private final UsuarioService usuarioService;
+    private final ExportacionReservasService exportacionService;
+    private final GeneracionFranjasService generacionFranjasService;
 
     // ==================== GESTIÓN DE SERVICIOS ====================
 
@@ -154,6 +164,23 @@ public class AdminController {
         return ResponseEntity.status(HttpStatus.CREATED).body(franja);
     }
 
+    /**
+     * Genera en bloque las franjas de un servicio a partir de una plantilla semanal.
+     * Las franjas que ya existen (misma fecha y hora de inicio) se omiten.
+     *
+     * Endpoint: POST /admin/franjas/generar
+     * Acceso: Solo ADMIN
+     *
+     * @param request Plantilla (servicioId, desde, hasta, diasSemana, tramos, intervaloMinutos, plazas)
+     * @return GeneracionFranjasResponse con las franjas creadas y las ya existentes
+     */
+    @PostMapping("/franjas/generar")
+    public ResponseEntity<GeneracionFranjasResponse> generarFranjas(
+            @Valid @RequestBody PlantillaFranjasRequest request) {
+        GeneracionFranjasResponse generacion = generacionFranjasService.generar(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(generacion);
+    }
+
     /**
      * Elimina una franja horaria.
      * Solo permite eliminar franjas sin reservas.
@@ -238,22 +265,92 @@ public class AdminController {
         return ResponseEntity.ok(franjas);
     }
 
+    /**
+     * Comprueba que las plazas de las franjas cuadran con sus reservas.
+     * Útil tras picos de carga para verificar que no ha habido overbooking.
+     *
+     * Endpoint: GET /admin/franjas/descuadres?desde=2024-01-01&hasta=2024-01-31
+     * Acceso: Solo ADMIN
+     *
+     * @param desde Fecha inicial
+     * @param hasta Fecha final
+     * @return Lista de franjas descuadradas (vacía si todo cuadra)
+     */
+    @GetMapping("/franjas/descuadres")
+    public ResponseEntity<List<DescuadrePlazasResponse>> getDescuadresPlazas(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        List<DescuadrePlazasResponse> descuadres = franjaService.getDescuadresPlazas(desde, hasta);
+        return ResponseEntity.ok(descuadres);
+    }
+
     // ==================== GESTIÓN DE RESERVAS ====================
 
     /**
-     * Obtiene todas las reservas del sistema.
+     * Obtiene las reservas del sistema paginadas por cursor.
      *
-     * Endpoint: GET /admin/reservas
+     * Endpoint: GET /admin/reservas?estado=PENDIENTE&servicioId=1&desde=2024-01-01&limite=50
+     * Siguiente página: GET /admin/reservas?...&cursor={siguienteCursor}
      * Acceso: Solo ADMIN
      *
-     * @return Lista de todas las ReservaResponse
+     * @param estado Estado a filtrar (opcional)
+     * @param servicioId Servicio a filtrar (opcional)
+     * @param usuarioId Usuario a filtrar (opcional)
+     * @param desde Fecha inicial (opcional)
+     * @param hasta Fecha final (opcional)
+     * @param cursor Cursor de la página anterior (opcional)
+     * @param limite Tamaño de página (opcional, máximo 200)
+     * @return Página de ReservaResponse ordenadas por fecha y hora
      */
     @GetMapping("/reservas")
-    public ResponseEntity<List<ReservaResponse>> getAllReservas() {
-        List<ReservaResponse> reservas = reservaService.getAllReservas();
+    public ResponseEntity<PaginaResponse<ReservaResponse>> getReservas(
+            @RequestParam(required = false) EstadoReserva estado,
+            @RequestParam(required = false) Long servicioId,
+            @RequestParam(required = false) Long usuarioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        PaginaResponse<ReservaResponse> reservas = reservaService.getReservasPaginadas(
+                estado, servicioId, usuarioId, desde, hasta, cursor, limite
+        );
         return ResponseEntity.ok(reservas);
     }
 
+    /**
+     * Exporta las reservas de un rango de fechas para contabilidad.
+     *
+     * La respuesta se escribe en streaming (fila a fila), por lo que se pueden
+     * exportar periodos largos sin cargar todas las reservas en memoria.
+     *
+     * Endpoint: GET /admin/reservas/exportar?desde=2024-01-01&hasta=2024-12-31&formato=CSV
+     * Acceso: Solo ADMIN
+     *
+     * @param desde Fecha inicial
+     * @param hasta Fecha final
+     * @param formato CSV (por defecto) o NDJSON
+     * @param response Respuesta HTTP donde se escribe el fichero
+     * @throws IOException si falla la escritura de la respuesta
+     */
+    @GetMapping("/reservas/exportar")
+    public void exportarReservas(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "CSV") FormatoExportacion formato,
+            HttpServletResponse response) throws IOException {
+        // Validar antes de escribir cabeceras, para poder responder con un error
+        exportacionService.validarRango(desde, hasta);
+
+        String extension = formato == FormatoExportacion.CSV ? "csv" : "ndjson";
+        response.setContentType(formato == FormatoExportacion.CSV
+                ? "text/csv;charset=UTF-8"
+                : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"reservas_" + desde + "_" + hasta + "." + extension + "\"");
+
+        exportacionService.exportar(desde, hasta, formato, response.getOutputStream());
+    }
+
     /**
      * Obtiene reservas del día actual.
      * Útil para dashboard: "Citas de hoy".
@@ -1,5 +1,6 @@
 package com.beautybooking.controller;
 
+import com.beautybooking.dto.response.CalendarioDiaResponse;
 import com.beautybooking.dto.response.FranjaResponse;
 import com.beautybooking.service.FranjaHorariaService;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +9,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.List;
 
 /**
@@ -17,6 +20,8 @@ import java.util.List;
  *
  * Rutas:
  * - GET /franjas/disponibles?servicioId=X&fecha=YYYY-MM-DD
+ * - GET /franjas/calendario?servicioId=X&mes=YYYY-MM
+ * - GET /franjas/buscar?servicioIds=X,Y&desde=YYYY-MM-DD&hasta=YYYY-MM-DD
  *
  * @author Andres Eduardo Parada Prieto
  * @version 1.0
@@ -49,6 +54,56 @@ public class FranjaController {
         return ResponseEntity.ok(franjas);
     }
 
+    /**
+     * Obtiene el resumen de disponibilidad de un servicio para un mes.
+     * Una sola petición para pintar el selector de fechas (en lugar de
+     * una consulta de franjas disponibles por día).
+     *
+     * Endpoint: GET /franjas/calendario?servicioId=1&mes=2025-01
+     * Acceso: Público
+     *
+     * @param servicioId ID del servicio
+     * @param mes Mes a consultar (formato: YYYY-MM)
+     * @return Lista de CalendarioDiaResponse (días con franjas)
+     */
+    @GetMapping("/calendario")
+    public ResponseEntity<List<CalendarioDiaResponse>> getCalendario(
+            @RequestParam Long servicioId,
+            @RequestParam YearMonth mes) {
+
+        List<CalendarioDiaResponse> calendario = franjaService.getCalendario(servicioId, mes);
+        return ResponseEntity.ok(calendario);
+    }
+
+    /**
+     * Busca las próximas franjas disponibles de varios servicios en un rango
+     * de fechas y, opcionalmente, dentro de una ventana horaria.
+     *
+     * Endpoint: GET /franjas/buscar?servicioIds=1,2&desde=2025-01-13&hasta=2025-01-19&horaDesde=16:00
+     * Acceso: Público
+     *
+     * @param servicioIds IDs de los servicios
+     * @param desde Fecha inicial
+     * @param hasta Fecha final
+     * @param horaDesde Hora mínima de inicio (opcional, formato HH:mm)
+     * @param horaHasta Hora máxima de fin (opcional, formato HH:mm)
+     * @param limite Número máximo de franjas (opcional)
+     * @return Lista de FranjaResponse ordenadas por fecha y hora
+     */
+    @GetMapping("/buscar")
+    public ResponseEntity<List<FranjaResponse>> buscarDisponibles(
+            @RequestParam List<Long> servicioIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime horaDesde,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime horaHasta,
+            @RequestParam(required = false) Integer limite) {
+
+        List<FranjaResponse> franjas = franjaService.buscarDisponibles(
+                servicioIds, desde, hasta, horaDesde, horaHasta, limite);
+        return ResponseEntity.ok(franjas);
+    }
+
     /**
      * Obtiene todas las franjas (con y sin disponibilidad).
      *
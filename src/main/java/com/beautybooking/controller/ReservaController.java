@@ -2,7 +2,11 @@ package com.beautybooking.controller;
 
 import com.beautybooking.dto.request.ReservaRequest;
 import com.beautybooking.dto.response.ApiResponse;
+import com.beautybooking.dto.response.ListaEsperaResponse;
 import com.beautybooking.dto.response.ReservaResponse;
+import com.beautybooking.dto.response.RetencionPlazaResponse;
+import com.beautybooking.service.ContadorPlazasService;
+import com.beautybooking.service.ListaEsperaService;
 import com.beautybooking.service.ReservaService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +27,12 @@ import java.util.List;
  * - GET /reservas/mis - Ver mis reservas
  * - GET /reservas/{id} - Ver detalle de reserva
  * - DELETE /reservas/{id} - Cancelar reserva
+ * - POST /reservas/espera - Apuntarse a la lista de espera de una franja completa
+ * - GET /reservas/espera - Ver mis listas de espera
+ * - DELETE /reservas/espera/{id} - Salir de una lista de espera
+ * - POST /reservas/retenciones - Retener una plaza durante unos minutos
+ * - POST /reservas/retenciones/{id}/confirmar - Confirmar la plaza retenida como reserva
+ * - DELETE /reservas/retenciones/{id} - Liberar una plaza retenida
  *
  * @author Andres Eduardo Parada Prieto
  * @version 1.0
@@ -34,6 +44,8 @@ import java.util.List;
 public class ReservaController {
 
     private final ReservaService reservaService;
+    private final ContadorPlazasService contadorPlazas;
+    private final ListaEsperaService listaEsperaService;
 
     /**
      * Crea una nueva reserva.
@@ -42,6 +54,8 @@ public class ReservaController {
      * Acceso: Usuario autenticado (CLIENTE o ADMIN)
      *
      * El email del usuario se extrae del token JWT (Authentication).
+     * Las franjas que se sabe que están completas se rechazan antes de
+     * abrir la transacción, sin consultar la base de datos.
      *
      * @param request Datos de la reserva (franjaId, notas)
      * @param authentication Usuario autenticado
@@ -52,6 +66,8 @@ public class ReservaController {
             @Valid @RequestBody ReservaRequest request,
             Authentication authentication) {
 
+        contadorPlazas.comprobarDisponibilidad(request.getFranjaId());
+
         String usuarioEmail = authentication.getName();
         ReservaResponse reserva = reservaService.createReserva(usuarioEmail, request);
 
@@ -116,4 +132,124 @@ public class ReservaController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Apunta al usuario en la lista de espera de una franja completa.
+     * Cuando se cancele una reserva de la franja, el primero de la lista
+     * recibe la plaza como reserva PENDIENTE.
+     *
+     * Endpoint: POST /reservas/espera
+     * Acceso: Usuario autenticado
+     *
+     * @param request Franja completa y notas para la futura reserva
+     * @param authentication Usuario autenticado
+     * @return ListaEsperaResponse con la posición en la cola
+     */
+    @PostMapping("/espera")
+    public ResponseEntity<ListaEsperaResponse> apuntarListaEspera(
+            @Valid @RequestBody ReservaRequest request,
+            Authentication authentication) {
+
+        String usuarioEmail = authentication.getName();
+        ListaEsperaResponse entrada = listaEsperaService.apuntar(usuarioEmail, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(entrada);
+    }
+
+    /**
+     * Obtiene las listas de espera del usuario autenticado (franjas de hoy en adelante).
+     *
+     * Endpoint: GET /reservas/espera
+     * Acceso: Usuario autenticado
+     *
+     * @param authentication Usuario autenticado
+     * @return Lista de ListaEsperaResponse con la posición en cada cola
+     */
+    @GetMapping("/espera")
+    public ResponseEntity<List<ListaEsperaResponse>> getMiListaEspera(Authentication authentication) {
+        String usuarioEmail = authentication.getName();
+        return ResponseEntity.ok(listaEsperaService.getMiListaEspera(usuarioEmail));
+    }
+
+    /**
+     * Saca al usuario de una lista de espera.
+     *
+     * Endpoint: DELETE /reservas/espera/{id}
+     * Acceso: Usuario autenticado (propietario de la entrada)
+     *
+     * @param id ID de la entrada
+     * @param authentication Usuario autenticado
+     * @return ApiResponse confirmando la baja
+     */
+    @DeleteMapping("/espera/{id}")
+    public ResponseEntity<ApiResponse> salirListaEspera(
+            @PathVariable Long id,
+            Authentication authentication) {
+
+        String usuarioEmail = authentication.getName();
+        return ResponseEntity.ok(listaEsperaService.salir(id, usuarioEmail));
+    }
+
+    /**
+     * Retiene una plaza de la franja (primera fase de la reserva en dos fases).
+     * La plaza deja de estar disponible hasta que se confirma, se libera o caduca.
+     *
+     * Endpoint: POST /reservas/retenciones
+     * Acceso: Usuario autenticado
+     *
+     * @param request Datos de la reserva (franjaId, notas)
+     * @param authentication Usuario autenticado
+     * @return RetencionPlazaResponse con la caducidad de la retención
+     */
+    @PostMapping("/retenciones")
+    public ResponseEntity<RetencionPlazaResponse> retenerPlaza(
+            @Valid @RequestBody ReservaRequest request,
+            Authentication authentication) {
+
+        contadorPlazas.comprobarDisponibilidad(request.getFranjaId());
+
+        String usuarioEmail = authentication.getName();
+        RetencionPlazaResponse retencion = reservaService.retenerPlaza(usuarioEmail, request);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(retencion);
+    }
+
+    /**
+     * Confirma una plaza retenida como reserva PENDIENTE.
+     *
+     * Endpoint: POST /reservas/retenciones/{id}/confirmar
+     * Acceso: Usuario autenticado (propietario de la retención)
+     *
+     * @param id ID de la retención
+     * @param authentication Usuario autenticado
+     * @return ReservaResponse con datos de la reserva creada
+     */
+    @PostMapping("/retenciones/{id}/confirmar")
+    public ResponseEntity<ReservaResponse> confirmarRetencion(
+            @PathVariable Long id,
+            Authentication authentication) {
+
+        String usuarioEmail = authentication.getName();
+        ReservaResponse reserva = reservaService.confirmarRetencion(id, usuarioEmail);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(reserva);
+    }
+
+    /**
+     * Libera una plaza retenida sin confirmarla.
+     *
+     * Endpoint: DELETE /reservas/retenciones/{id}
+     * Acceso: Usuario autenticado (propietario de la retención)
+     *
+     * @param id ID de la retención
+     * @param authentication Usuario autenticado
+     * @return ApiResponse confirmando la liberación
+     */
+    @DeleteMapping("/retenciones/{id}")
+    public ResponseEntity<ApiResponse> liberarRetencion(
+            @PathVariable Long id,
+            Authentication authentication) {
+
+        String usuarioEmail = authentication.getName();
+        return ResponseEntity.ok(reservaService.liberarRetencion(id, usuarioEmail));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.beautybooking.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * DTO con la plantilla semanal para generar franjas en bloque (solo ADMIN).
+ *
+ * Ejemplo: "Manicura de lunes a viernes, de 09:00 a 14:00 y de 16:00 a 20:00,
+ * cada 30 minutos, durante los próximos tres meses".
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlantillaFranjasRequest {
+
+    /**
+     * ID del servicio para el que se generan las franjas.
+     */
+    @NotNull(message = "El ID del servicio es obligatorio")
+    private Long servicioId;
+
+    /**
+     * Primer día a generar (inclusive).
+     */
+    @NotNull(message = "La fecha de inicio es obligatoria")
+    private LocalDate desde;
+
+    /**
+     * Último día a generar (inclusive).
+     */
+    @NotNull(message = "La fecha de fin es obligatoria")
+    private LocalDate hasta;
+
+    /**
+     * Días de la semana con servicio (MONDAY, TUESDAY, ...).
+     */
+    @NotEmpty(message = "Indica al menos un día de la semana")
+    private Set<DayOfWeek> diasSemana;
+
+    /**
+     * Tramos de apertura de cada día (ej. mañana y tarde).
+     * Deben estar entre 07:00 y 22:00.
+     */
+    @NotEmpty(message = "Indica al menos un tramo horario")
+    @Valid
+    private List<TramoHorario> tramos;
+
+    /**
+     * Minutos entre el inicio de dos franjas consecutivas.
+     * Si no se especifica, toma la duración del servicio (franjas seguidas).
+     */
+    @Positive(message = "El intervalo debe ser mayor que 0")
+    private Integer intervaloMinutos;
+
+    /**
+     * Plazas de cada franja.
+     * Si no se especifica, toma el aforoMaximo del servicio.
+     */
+    @Positive(message = "Las plazas deben ser mayores que 0")
+    private Integer plazas;
+
+    /**
+     * Tramo de apertura dentro de un día.
+     * Las franjas empiezan en horaInicio y la última termina como tarde en horaFin.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TramoHorario {
+
+        @NotNull(message = "La hora de inicio del tramo es obligatoria")
+        private LocalTime horaInicio;
+
+        @NotNull(message = "La hora de fin del tramo es obligatoria")
+        private LocalTime horaFin;
+    }
+}
@@ -0,0 +1,29 @@
+package com.beautybooking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO de respuesta con el resumen de disponibilidad de un día.
+ *
+ * Lo usa el selector de fechas del frontend: con una sola petición por mes
+ * sabe qué días tienen plazas y a qué hora empieza la primera franja libre.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarioDiaResponse {
+
+    private LocalDate fecha;
+    private Long plazasDisponibles;     // Suma de plazas libres de las franjas del día
+    private Long franjasDisponibles;    // Franjas con al menos una plaza libre
+    private LocalTime primeraHoraDisponible; // null si el día está completo
+}
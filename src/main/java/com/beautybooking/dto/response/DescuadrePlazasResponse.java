@@ -0,0 +1,34 @@
+package com.beautybooking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO de respuesta para franjas con las plazas descuadradas.
+ *
+ * Una franja está descuadrada cuando sus plazas ocupadas
+ * (plazasTotales - plazasDisponibles) no coinciden con el número de
+ * reservas no canceladas que tiene (reservasActivas incluye las plazas
+ * retenidas sin confirmar). Indica overbooking o plazas perdidas.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DescuadrePlazasResponse {
+
+    private Long franjaId;
+    private Long servicioId;
+    private LocalDate fecha;
+    private LocalTime horaInicio;
+    private Integer plazasTotales;
+    private Integer plazasDisponibles;
+    private Long reservasActivas;
+}
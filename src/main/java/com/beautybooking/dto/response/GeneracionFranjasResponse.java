@@ -0,0 +1,26 @@
+package com.beautybooking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO de respuesta de la generación de franjas desde una plantilla.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeneracionFranjasResponse {
+
+    private Long servicioId;
+    private LocalDate desde;
+    private LocalDate hasta;
+    private Integer franjasCreadas;
+    private Integer franjasExistentes; // Ya existían (misma fecha y hora de inicio) y no se tocan
+}
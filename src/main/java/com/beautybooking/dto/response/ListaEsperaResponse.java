@@ -0,0 +1,36 @@
+package com.beautybooking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO de respuesta para entradas de la lista de espera.
+ *
+ * Incluye los datos de la franja y la posición actual en su cola
+ * (1 = el siguiente en recibir plaza).
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListaEsperaResponse {
+
+    private Long id;
+    private Long franjaId;
+    private Long servicioId;
+    private String servicioNombre;
+    private LocalDate fecha;
+    private LocalTime horaInicio;
+    private LocalTime horaFin;
+    private Long posicion;
+    private String notas;
+    private Instant creadoEn;
+}
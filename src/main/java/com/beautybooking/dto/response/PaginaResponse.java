@@ -0,0 +1,34 @@
+package com.beautybooking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta para listados paginados por cursor.
+ *
+ * El frontend pide la siguiente página enviando siguienteCursor en el
+ * parámetro "cursor". Cuando siguienteCursor es null no hay más resultados.
+ *
+ * @param <T> Tipo de los elementos de la página
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaResponse<T> {
+
+    /**
+     * Elementos de la página actual.
+     */
+    private List<T> contenido;
+
+    /**
+     * Cursor opaco para pedir la página siguiente (null si es la última).
+     */
+    private String siguienteCursor;
+}
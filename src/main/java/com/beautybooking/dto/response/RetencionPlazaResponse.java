@@ -0,0 +1,35 @@
+package com.beautybooking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO de respuesta para plazas retenidas.
+ *
+ * La retención debe confirmarse antes de expiraEn; después la plaza
+ * vuelve a estar disponible.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetencionPlazaResponse {
+
+    private Long id;
+    private Long franjaId;
+    private Long servicioId;
+    private String servicioNombre;
+    private LocalDate fecha;
+    private LocalTime horaInicio;
+    private LocalTime horaFin;
+    private String notas;
+    private Instant expiraEn;
+}
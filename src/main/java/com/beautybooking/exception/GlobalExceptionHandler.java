@@ -1,12 +1,16 @@
 package com.beautybooking.exception;
 
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.Instant;
 import java.util.HashMap;
@@ -64,6 +68,44 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * Maneja conflictos de concurrencia (bloqueo optimista).
+     * Se produce cuando otra operación modificó el mismo registro y
+     * se han agotado los reintentos.
+     *
+     * @param ex Excepción lanzada
+     * @return ResponseEntity con status 409 y mensaje de error
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", Instant.now());
+        error.put("status", HttpStatus.CONFLICT.value());
+        error.put("error", "Conflicto de concurrencia");
+        error.put("message", "El registro ha sido modificado por otra operación. Por favor, inténtalo de nuevo.");
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Maneja la falta de conexiones a la base de datos.
+     * Se produce cuando el limitador de conexiones o el pool agotan su espera;
+     * el cliente puede reintentar pasados unos segundos.
+     *
+     * @param ex Excepción lanzada
+     * @return ResponseEntity con status 503 y mensaje de error
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<Map<String, Object>> handleBaseDatosSaturada(RuntimeException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", Instant.now());
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.put("error", "Servicio no disponible");
+        error.put("message", "El sistema está saturado en este momento. Por favor, inténtalo de nuevo en unos segundos.");
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
     /**
      * Maneja excepciones de autenticación/autorización.
      *
@@ -129,6 +171,24 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    /**
+     * Maneja parámetros de la URL con un tipo o valor no válido
+     * (por ejemplo un estado o una fecha mal escritos).
+     *
+     * @param ex Excepción lanzada
+     * @return ResponseEntity con status 400 y el parámetro erróneo
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Map<String, Object>> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", Instant.now());
+        error.put("status", HttpStatus.BAD_REQUEST.value());
+        error.put("error", "Parámetro no válido");
+        error.put("message", "Valor no válido para el parámetro '" + ex.getName() + "': " + ex.getValue());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     /**
      * Maneja excepciones genéricas no capturadas por otros handlers.
      *
@@ -0,0 +1,72 @@
+package com.beautybooking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Entidad EntradaListaEspera - Cliente esperando plaza en una franja completa.
+ *
+ * Mapea la tabla 'lista_espera' en la base de datos.
+ * Las entradas de una franja forman una cola FIFO en orden de id: al liberarse
+ * una plaza, el primero de la cola pasa a tener una reserva PENDIENTE.
+ *
+ * Relaciones:
+ * - Pertenece a una FranjaHoraria (ManyToOne)
+ * - Pertenece a un Usuario (ManyToOne)
+ *
+ * Reglas de negocio:
+ * - Solo se puede esperar en franjas completas y futuras
+ * - Un usuario solo puede estar una vez en la lista de cada franja
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Entity
+@Table(name = "lista_espera")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntradaListaEspera {
+
+    /**
+     * Identificador de la entrada; define el orden de la cola.
+     *
+     * IDENTITY, como Reserva: la entrada se inserta con la franja bloqueada.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Franja completa en la que se espera plaza.
+     */
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "franja_id", nullable = false)
+    private FranjaHoraria franja;
+
+    /**
+     * Usuario que espera.
+     */
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    /**
+     * Notas para la reserva que se creará al recibir la plaza.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String notas;
+
+    /**
+     * Fecha y hora de entrada en la lista.
+     */
+    @CreationTimestamp
+    @Column(name = "creado_en", nullable = false, updatable = false)
+    private Instant creadoEn;
+}
@@ -0,0 +1,117 @@
+package com.beautybooking.model;
+
+import com.beautybooking.model.enums.TipoEventoReserva;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Entidad EventoReserva - Cambio de una reserva pendiente de publicar (outbox).
+ *
+ * Mapea la tabla 'eventos_reserva' en la base de datos.
+ * Se inserta en la misma transacción que el cambio de la reserva, de modo que
+ * hay evento si y solo si el cambio se ha confirmado. El proceso de publicación
+ * (RelayEventosReservaService) los recorre en orden de id y marca procesadoEn.
+ *
+ * Relaciones:
+ * - Pertenece a un Usuario (ManyToOne)
+ * - Pertenece a un Servicio (ManyToOne)
+ * - La reserva y las franjas se guardan solo como ID (la reserva puede pasar
+ *   al histórico y las franjas pueden purgarse)
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Entity
+@Table(name = "eventos_reserva")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoReserva {
+
+    /**
+     * Identificador del evento; define el orden de publicación.
+     *
+     * IDENTITY, como Reserva: el evento se inserta con la franja bloqueada.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Cambio de la reserva.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoEventoReserva tipo;
+
+    /**
+     * ID de la reserva modificada.
+     */
+    @Column(name = "reserva_id", nullable = false)
+    private Long reservaId;
+
+    /**
+     * Usuario de la reserva.
+     */
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    /**
+     * Servicio de la reserva tras el cambio.
+     */
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "servicio_id", nullable = false)
+    private Servicio servicio;
+
+    /**
+     * ID de la franja de la reserva tras el cambio.
+     */
+    @Column(name = "franja_id")
+    private Long franjaId;
+
+    /**
+     * ID de la franja anterior si el cambio ha movido la reserva (MODIFICADA).
+     */
+    @Column(name = "franja_anterior_id")
+    private Long franjaAnteriorId;
+
+    /**
+     * Fecha de la reserva tras el cambio.
+     */
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    /**
+     * Hora de inicio de la reserva tras el cambio.
+     */
+    @Column(name = "hora_inicio", nullable = false)
+    private LocalTime horaInicio;
+
+    /**
+     * Hora de fin de la reserva tras el cambio.
+     */
+    @Column(name = "hora_fin", nullable = false)
+    private LocalTime horaFin;
+
+    /**
+     * Fecha y hora del cambio.
+     */
+    @CreationTimestamp
+    @Column(name = "creado_en", nullable = false, updatable = false)
+    private Instant creadoEn;
+
+    /**
+     * Fecha y hora de publicación (null mientras está pendiente).
+     */
+    @Column(name = "procesado_en")
+    private Instant procesadoEn;
+}
@@ -50,10 +50,14 @@ public class FranjaHoraria {
 
     /**
      * Identificador único de la franja horaria.
-     * Generado automáticamente por la base de datos.
+     * Se reserva en bloques de 50 desde la tabla secuencias_id (permite agrupar los INSERT).
+     * Cada bloque se reserva en su propia transacción, con una segunda conexión
+     * del pool mientras la transacción que inserta sigue abierta.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "franjas_horarias_id")
+    @TableGenerator(name = "franjas_horarias_id", table = "secuencias_id", pkColumnName = "nombre",
+            valueColumnName = "ultimo_valor", pkColumnValue = "franjas_horarias", allocationSize = 50)
     private Long id;
 
     /**
@@ -115,6 +119,15 @@ public class FranjaHoraria {
     @Column(name = "plazas_disponibles", nullable = false)
     private Integer plazasDisponibles;
 
+    /**
+     * Versión de la franja para bloqueo optimista.
+     * Hibernate la incrementa en cada modificación y rechaza las escrituras
+     * hechas sobre una versión antigua (OptimisticLockException).
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Lista de reservas realizadas en esta franja horaria.
      * Relación OneToMany con Reserva.
@@ -56,6 +56,10 @@ public class Reserva {
     /**
      * Identificador único de la reserva.
      * Generado automáticamente por la base de datos.
+     *
+     * Se mantiene IDENTITY (a diferencia del resto de entidades): cada reserva se
+     * inserta sola y con la franja bloqueada, y reservar ids en secuencias_id
+     * necesita una segunda conexión dentro de ese bloqueo.
      */
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -152,6 +156,13 @@ public class Reserva {
     @Column(name = "creado_en", nullable = false, updatable = false)
     private Instant creadoEn;
 
+    /**
+     * Fecha y hora de envío del recordatorio de la cita (null si no se ha enviado).
+     * Se vuelve a null si la reserva cambia de franja.
+     */
+    @Column(name = "recordatorio_enviado_en")
+    private Instant recordatorioEnviadoEn;
+
     /**
      * Verifica si la reserva puede ser cancelada.
      * Solo se pueden cancelar reservas en estado PENDIENTE o CONFIRMADA.
@@ -211,4 +222,19 @@ public class Reserva {
         }
         this.estado = EstadoReserva.COMPLETADA;
     }
+
+    /**
+     * Verifica si la reserva coincide con el horario dado.
+     * Los límites son inclusivos: una reserva que termina justo cuando
+     * empieza el horario también cuenta como coincidente (criterio de edición).
+     *
+     * @param fecha Fecha del horario
+     * @param horaInicio Hora de inicio del horario
+     * @param horaFin Hora de fin del horario
+     * @return true si coinciden fecha y horas, false en caso contrario
+     */
+    public boolean solapaCon(LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+        return this.fecha.equals(fecha) &&
+                !(horaFin.isBefore(this.horaInicio) || horaInicio.isAfter(this.horaFin));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.beautybooking.model;
+
+import com.beautybooking.model.enums.EstadoReserva;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Entidad ReservaHistorico - Reserva terminada movida al histórico.
+ *
+ * Mapea la tabla 'reservas_historico' en la base de datos.
+ * Contiene las reservas COMPLETADAS y CANCELADAS anteriores al horizonte de
+ * archivo, con el mismo id y los mismos datos que tenían en 'reservas'.
+ * Solo se escribe al archivar (INSERT ... SELECT desde Reserva); después
+ * únicamente se consulta para el historial de los usuarios.
+ *
+ * Relaciones:
+ * - Pertenece a un Usuario (ManyToOne)
+ * - Pertenece a un Servicio (ManyToOne)
+ * - La franja se guarda solo como ID, sin clave foránea (la purga de franjas
+ *   conserva las franjas con reservas archivadas)
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Entity
+@Table(name = "reservas_historico")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaHistorico {
+
+    /**
+     * ID original de la reserva (no se genera).
+     */
+    @Id
+    private Long id;
+
+    /**
+     * Usuario que realizó la reserva.
+     */
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    /**
+     * Servicio reservado.
+     */
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "servicio_id", nullable = false)
+    private Servicio servicio;
+
+    /**
+     * ID de la franja horaria de la reserva (sin clave foránea).
+     */
+    @Column(name = "franja_id")
+    private Long franjaId;
+
+    /**
+     * Fecha de la reserva.
+     */
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    /**
+     * Hora de inicio de la reserva.
+     */
+    @Column(name = "hora_inicio", nullable = false)
+    private LocalTime horaInicio;
+
+    /**
+     * Hora de fin de la reserva.
+     */
+    @Column(name = "hora_fin", nullable = false)
+    private LocalTime horaFin;
+
+    /**
+     * Estado final de la reserva: COMPLETADA o CANCELADA.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoReserva estado;
+
+    /**
+     * Precio final cobrado por la reserva.
+     */
+    @Column(name = "precio_final", precision = 7, scale = 2)
+    private BigDecimal precioFinal;
+
+    /**
+     * Notas de la reserva.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String notas;
+
+    /**
+     * Fecha y hora de creación de la reserva original.
+     */
+    @Column(name = "creado_en", nullable = false, updatable = false)
+    private Instant creadoEn;
+
+    /**
+     * Fecha y hora en que la reserva se movió al histórico.
+     */
+    @Column(name = "archivado_en", nullable = false, updatable = false)
+    private Instant archivadoEn;
+}
@@ -0,0 +1,89 @@
+package com.beautybooking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Entidad RetencionPlaza - Plaza de una franja retenida por un cliente mientras confirma.
+ *
+ * Mapea la tabla 'retenciones_plaza' en la base de datos.
+ * Primera fase de la reserva en dos fases: la plaza se descuenta de la franja
+ * al retenerla, de modo que la disponibilidad publicada ya la excluye.
+ *
+ * Ciclo de vida:
+ * 1. Cliente retiene la plaza → se crea con expiraEn
+ * 2a. Cliente confirma antes de expiraEn → se crea la Reserva y se elimina
+ * 2b. Cliente la libera o caduca → se elimina y la plaza vuelve a la franja
+ *
+ * Relaciones:
+ * - Pertenece a una FranjaHoraria (ManyToOne)
+ * - Pertenece a un Usuario (ManyToOne)
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Entity
+@Table(name = "retenciones_plaza")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetencionPlaza {
+
+    /**
+     * Identificador de la retención.
+     *
+     * IDENTITY, como Reserva: la retención se inserta con la franja bloqueada.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Franja de la plaza retenida.
+     */
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "franja_id", nullable = false)
+    private FranjaHoraria franja;
+
+    /**
+     * Usuario que retiene la plaza.
+     */
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    /**
+     * Notas para la reserva que se creará al confirmar.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String notas;
+
+    /**
+     * Fecha y hora en que caduca la retención si no se confirma.
+     */
+    @Column(name = "expira_en", nullable = false)
+    private Instant expiraEn;
+
+    /**
+     * Fecha y hora de la retención.
+     */
+    @CreationTimestamp
+    @Column(name = "creado_en", nullable = false, updatable = false)
+    private Instant creadoEn;
+
+    /**
+     * Verifica si la retención ha caducado.
+     *
+     * @param ahora Instante actual
+     * @return true si expiraEn no es posterior a ahora
+     */
+    public boolean haCaducado(Instant ahora) {
+        return !this.expiraEn.isAfter(ahora);
+    }
+}
@@ -34,10 +34,14 @@ public class Servicio {
 
     /**
      * Identificador único del servicio.
-     * Generado automáticamente por la base de datos.
+     * Se reserva en bloques de 50 desde la tabla secuencias_id (permite agrupar los INSERT).
+     * Cada bloque se reserva en su propia transacción, con una segunda conexión
+     * del pool mientras la transacción que inserta sigue abierta.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "servicios_id")
+    @TableGenerator(name = "servicios_id", table = "secuencias_id", pkColumnName = "nombre",
+            valueColumnName = "ultimo_valor", pkColumnValue = "servicios", allocationSize = 50)
     private Long id;
 
     /**
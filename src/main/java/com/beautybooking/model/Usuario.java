@@ -1,6 +1,7 @@
 package com.beautybooking.model;
 
 import com.beautybooking.model.enums.RolUsuario;
+import com.beautybooking.security.UsuarioPrincipalListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -25,6 +26,7 @@ import java.util.List;
  * @since 2025
  */
 @Entity
+@EntityListeners(UsuarioPrincipalListener.class)
 @Table(name = "usuarios", indexes = {
         @Index(name = "idx_email", columnList = "email")
 })
@@ -36,6 +38,10 @@ public class Usuario {
     /**
      * Identificador único del usuario.
      * Generado automáticamente por la base de datos.
+     *
+     * Se mantiene IDENTITY (como Reserva): los usuarios se registran de uno en
+     * uno, también dentro de la transacción de una reserva, y reservar ids en
+     * secuencias_id necesita una segunda conexión del pool en cada bloque.
      */
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
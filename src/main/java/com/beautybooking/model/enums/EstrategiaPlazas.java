@@ -0,0 +1,34 @@
+package com.beautybooking.model.enums;
+
+/**
+ * Estrategias de concurrencia para ocupar plazas de una franja horaria.
+ *
+ * Se selecciona con la propiedad app.reservas.estrategia-plazas y permite
+ * comparar la latencia de las reservas bajo carga según el modo elegido.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+public enum EstrategiaPlazas {
+    /**
+     * Bloqueo pesimista (SELECT ... FOR UPDATE) sobre la franja.
+     * La fila queda bloqueada durante todas las validaciones de la reserva.
+     */
+    PESIMISTA,
+
+    /**
+     * UPDATE condicional atómico (plazas_disponibles > 0).
+     * La fila no se bloquea durante las validaciones, sino desde esa
+     * sentencia hasta el commit; el número de filas afectadas decide si la
+     * plaza se ha ocupado.
+     */
+    CONDICIONAL,
+
+    /**
+     * Bloqueo optimista con la versión de la franja (@Version).
+     * La franja se lee sin bloqueo y, si otra transacción la modifica antes
+     * de confirmar, la reserva se reintenta un número limitado de veces.
+     */
+    OPTIMISTA
+}
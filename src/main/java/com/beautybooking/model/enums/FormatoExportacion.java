@@ -0,0 +1,22 @@
+package com.beautybooking.model.enums;
+
+/**
+ * Formatos disponibles para exportar reservas.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+public enum FormatoExportacion {
+    /**
+     * Valores separados por comas, con fila de cabecera.
+     * Se abre directamente en hojas de cálculo.
+     */
+    CSV,
+
+    /**
+     * Un objeto JSON por línea (mismos campos que ReservaResponse).
+     * Adecuado para procesar por lotes o importar en otras herramientas.
+     */
+    NDJSON
+}
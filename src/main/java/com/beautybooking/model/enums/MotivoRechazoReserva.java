@@ -0,0 +1,31 @@
+package com.beautybooking.model.enums;
+
+/**
+ * Motivos por los que se rechaza una reserva.
+ * Se usan como etiqueta de la métrica reservas.rechazos.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+public enum MotivoRechazoReserva {
+    /**
+     * La franja no tiene plazas disponibles (en la BD o en el contador en memoria).
+     */
+    SIN_PLAZAS,
+
+    /**
+     * El usuario ya tiene una reserva activa en la misma franja.
+     */
+    DUPLICADA,
+
+    /**
+     * El usuario ya tiene otra reserva activa que solapa con el horario.
+     */
+    SOLAPADA,
+
+    /**
+     * La franja queda fuera del horario permitido (07:00 - 22:00).
+     */
+    FUERA_HORARIO
+}
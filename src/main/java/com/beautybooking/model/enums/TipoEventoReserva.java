@@ -0,0 +1,35 @@
+package com.beautybooking.model.enums;
+
+/**
+ * Cambios de una reserva registrados en la tabla de eventos (outbox).
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+public enum TipoEventoReserva {
+    /**
+     * Reserva creada (estado PENDIENTE).
+     */
+    CREADA,
+
+    /**
+     * Reserva confirmada (PENDIENTE → CONFIRMADA).
+     */
+    CONFIRMADA,
+
+    /**
+     * Servicio prestado (CONFIRMADA → COMPLETADA).
+     */
+    COMPLETADA,
+
+    /**
+     * Reserva cancelada por el cliente o por el centro.
+     */
+    CANCELADA,
+
+    /**
+     * Reserva editada por el centro: cambio de franja (franjaAnteriorId) o de notas.
+     */
+    MODIFICADA
+}
@@ -0,0 +1,50 @@
+package com.beautybooking.model.enums;
+
+/**
+ * Cambios de una reserva que se notifican por email al cliente.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+public enum TipoNotificacionReserva {
+    /**
+     * Reserva creada (estado PENDIENTE).
+     */
+    CREADA("Hemos recibido tu reserva"),
+
+    /**
+     * Reserva confirmada por el centro.
+     */
+    CONFIRMADA("Tu reserva está confirmada"),
+
+    /**
+     * Reserva cancelada por el cliente o por el centro.
+     */
+    CANCELADA("Tu reserva ha sido cancelada"),
+
+    /**
+     * Reserva movida a otra franja o con notas modificadas por el centro.
+     */
+    MODIFICADA("Tu reserva ha cambiado"),
+
+    /**
+     * Recordatorio de una cita confirmada próxima.
+     */
+    RECORDATORIO("Recordatorio de tu cita");
+
+    private final String asunto;
+
+    TipoNotificacionReserva(String asunto) {
+        this.asunto = asunto;
+    }
+
+    /**
+     * Asunto del email.
+     *
+     * @return Asunto sin el nombre de la aplicación
+     */
+    public String getAsunto() {
+        return asunto;
+    }
+}
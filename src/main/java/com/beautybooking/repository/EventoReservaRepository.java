@@ -0,0 +1,70 @@
+package com.beautybooking.repository;
+
+import com.beautybooking.model.EventoReserva;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio para la entidad EventoReserva (outbox de reservas).
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Repository
+public interface EventoReservaRepository extends JpaRepository<EventoReserva, Long> {
+
+    /**
+     * Lista un lote de eventos pendientes en orden de id y los bloquea
+     * (SELECT ... FOR UPDATE) hasta el final de la transacción, para que
+     * dos instancias no publiquen el mismo evento.
+     * Recorre idx_eventos_reserva_pendientes (procesado_en, id).
+     *
+     * @param lote Tamaño del lote (página 0)
+     * @return Eventos pendientes, más antiguos primero
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM EventoReserva e WHERE e.procesadoEn IS NULL ORDER BY e.id")
+    List<EventoReserva> findPendientes(Pageable lote);
+
+    /**
+     * Marca un lote de eventos como publicados con un único UPDATE.
+     *
+     * @param ids IDs de los eventos
+     * @param procesadoEn Instante de publicación
+     * @return Número de eventos marcados
+     */
+    @Modifying
+    @Query("UPDATE EventoReserva e SET e.procesadoEn = :procesadoEn WHERE e.id IN :ids")
+    int marcarProcesados(@Param("ids") Collection<Long> ids, @Param("procesadoEn") Instant procesadoEn);
+
+    /**
+     * Lista un lote de IDs de eventos publicados antes de un instante.
+     *
+     * @param antesDe Instante límite de publicación
+     * @param lote Tamaño del lote (página 0)
+     * @return IDs de los eventos a eliminar
+     */
+    @Query("SELECT e.id FROM EventoReserva e WHERE e.procesadoEn < :antesDe ORDER BY e.id")
+    List<Long> findIdsProcesadosAntesDe(@Param("antesDe") Instant antesDe, Pageable lote);
+
+    /**
+     * Elimina un lote de eventos con un único DELETE, sin cargar las entidades.
+     *
+     * @param ids IDs de los eventos
+     * @return Número de eventos eliminados
+     */
+    @Modifying
+    @Query("DELETE FROM EventoReserva e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
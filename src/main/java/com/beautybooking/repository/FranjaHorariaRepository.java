@@ -1,15 +1,21 @@
 package com.beautybooking.repository;
 
+import com.beautybooking.dto.response.CalendarioDiaResponse;
+import com.beautybooking.dto.response.DescuadrePlazasResponse;
 import com.beautybooking.model.FranjaHoraria;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,18 +48,48 @@ public interface FranjaHorariaRepository extends JpaRepository<FranjaHoraria, Lo
     /**
      * Busca franjas disponibles (con plazas > 0) para un servicio en una fecha.
      * Solo devuelve franjas donde aún se puede reservar.
+     * Carga el servicio en la misma consulta (se muestra en cada franja).
      *
      * @param servicioId ID del servicio
      * @param fecha Fecha a consultar
      * @return Lista de franjas con disponibilidad
      */
-    @Query("SELECT f FROM FranjaHoraria f WHERE f.servicio.id = :servicioId " +
-            "AND f.fecha = :fecha AND f.plazasDisponibles > 0")
+    @Query("SELECT f FROM FranjaHoraria f JOIN FETCH f.servicio s WHERE s.id = :servicioId " +
+            "AND f.fecha = :fecha AND f.plazasDisponibles > 0 ORDER BY f.horaInicio")
     List<FranjaHoraria> findDisponiblesByServicioIdAndFecha(
             @Param("servicioId") Long servicioId,
             @Param("fecha") LocalDate fecha
     );
 
+    /**
+     * Busca las próximas franjas con plazas de varios servicios en un rango
+     * de fechas y dentro de una ventana horaria (franja completa dentro de ella).
+     * Una sola consulta sobre idx_franjas_servicio_fecha, ordenada por inicio
+     * y limitada por la página; carga el servicio de cada franja.
+     *
+     * @param servicioIds IDs de los servicios
+     * @param desde Fecha inicial del rango
+     * @param hasta Fecha final del rango
+     * @param horaDesde Hora mínima de inicio de la franja
+     * @param horaHasta Hora máxima de fin de la franja
+     * @param pagina Tamaño máximo del resultado (página 0)
+     * @return Franjas disponibles ordenadas por fecha y hora de inicio
+     */
+    @EntityGraph(attributePaths = "servicio")
+    @Query("SELECT f FROM FranjaHoraria f WHERE f.servicio.id IN :servicioIds " +
+            "AND f.fecha BETWEEN :desde AND :hasta " +
+            "AND f.horaInicio >= :horaDesde AND f.horaFin <= :horaHasta " +
+            "AND f.plazasDisponibles > 0 " +
+            "ORDER BY f.fecha ASC, f.horaInicio ASC, f.id ASC")
+    List<FranjaHoraria> findDisponiblesByServicioIdsEntreFechas(
+            @Param("servicioIds") Collection<Long> servicioIds,
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta,
+            @Param("horaDesde") LocalTime horaDesde,
+            @Param("horaHasta") LocalTime horaHasta,
+            Pageable pagina
+    );
+
     /**
      * Busca franjas en un rango de fechas para un servicio.
      * Útil para mostrar disponibilidad semanal o mensual.
@@ -71,6 +107,31 @@ public interface FranjaHorariaRepository extends JpaRepository<FranjaHoraria, Lo
             @Param("fechaFin") LocalDate fechaFin
     );
 
+    /**
+     * Resume la disponibilidad de un servicio por día en un rango de fechas.
+     *
+     * Una fila por fecha con franjas: plazas libres totales, franjas con plazas
+     * y hora de inicio de la primera franja libre (null si el día está completo).
+     * Sustituye a una consulta de franjas disponibles por cada día del mes.
+     *
+     * @param servicioId ID del servicio
+     * @param desde Fecha inicial (primer día del mes)
+     * @param hasta Fecha final (último día del mes)
+     * @return Resumen por día ordenado por fecha
+     */
+    @Query("SELECT new com.beautybooking.dto.response.CalendarioDiaResponse(" +
+            "f.fecha, SUM(f.plazasDisponibles), " +
+            "COUNT(CASE WHEN f.plazasDisponibles > 0 THEN 1 END), " +
+            "MIN(CASE WHEN f.plazasDisponibles > 0 THEN f.horaInicio END)) " +
+            "FROM FranjaHoraria f WHERE f.servicio.id = :servicioId " +
+            "AND f.fecha BETWEEN :desde AND :hasta " +
+            "GROUP BY f.fecha ORDER BY f.fecha")
+    List<CalendarioDiaResponse> findCalendarioByServicioId(
+            @Param("servicioId") Long servicioId,
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta
+    );
+
     /**
      * Busca una franja específica con BLOQUEO PESIMISTA (PESSIMISTIC_WRITE).
      *
@@ -89,6 +150,32 @@ public interface FranjaHorariaRepository extends JpaRepository<FranjaHoraria, Lo
     @Query("SELECT f FROM FranjaHoraria f WHERE f.id = :id")
     Optional<FranjaHoraria> findByIdWithLock(@Param("id") Long id);
 
+    /**
+     * Ocupa una plaza de la franja con un UPDATE condicional atómico.
+     *
+     * Alternativa a findByIdWithLock: la fila no se bloquea durante las
+     * validaciones, sino desde esta sentencia hasta el final de la transacción,
+     * y la condición plazas_disponibles > 0 impide que se reserve por encima
+     * del aforo. También incrementa la versión de la franja
+     * para que las lecturas con bloqueo optimista detecten el cambio.
+     *
+     * Equivale a: UPDATE franjas_horarias SET plazas_disponibles = plazas_disponibles - 1
+     * WHERE id = ? AND plazas_disponibles > 0
+     *
+     * Es un UPDATE masivo: la franja cargada en la transacción conserva los
+     * plazasDisponibles y la version anteriores. No debe modificarse ni
+     * guardarse después en la misma transacción (Hibernate la rechazaría por
+     * versión); para leer las plazas actualizadas hay que volver a consultarla.
+     *
+     * @param id ID de la franja
+     * @return 1 si se ha ocupado la plaza, 0 si no quedaban plazas
+     */
+    @Modifying
+    @Query("UPDATE FranjaHoraria f SET f.plazasDisponibles = f.plazasDisponibles - 1, " +
+            "f.version = f.version + 1 " +
+            "WHERE f.id = :id AND f.plazasDisponibles > 0")
+    int decrementarPlazasSiDisponible(@Param("id") Long id);
+
     /**
      * Verifica si existe una franja con los mismos parámetros.
      * Evita duplicados al crear franjas.
@@ -141,10 +228,120 @@ public interface FranjaHorariaRepository extends JpaRepository<FranjaHoraria, Lo
     );
 
     /**
-     * Elimina franjas antiguas (antes de una fecha).
-     * Útil para limpiar franjas pasadas periódicamente.
+     * Lista las plazas disponibles de las franjas desde una fecha.
+     * Usado para cargar el contador de plazas en memoria al arrancar y al cambiar de día.
+     *
+     * @param fecha Fecha inicial (normalmente hoy)
+     * @return Pares (id, plazasDisponibles) de las franjas desde esa fecha
+     */
+    @Query("SELECT f.id AS id, f.plazasDisponibles AS plazasDisponibles FROM FranjaHoraria f " +
+            "WHERE f.fecha >= :fecha")
+    List<PlazasFranja> findPlazasDisponiblesDesde(@Param("fecha") LocalDate fecha);
+
+    /**
+     * Lista las plazas disponibles de un lote de franjas por ID (clave primaria).
+     * Usado para recargar las franjas completas del contador de plazas en memoria.
+     *
+     * @param ids IDs de las franjas
+     * @return Pares (id, plazasDisponibles) de las franjas que siguen existiendo
+     */
+    @Query("SELECT f.id AS id, f.plazasDisponibles AS plazasDisponibles FROM FranjaHoraria f " +
+            "WHERE f.id IN :ids")
+    List<PlazasFranja> findPlazasDisponiblesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Proyección con las plazas disponibles de una franja.
+     */
+    interface PlazasFranja {
+        Long getId();
+
+        Integer getPlazasDisponibles();
+    }
+
+    /**
+     * Lista fecha y hora de inicio de las franjas de un servicio en un rango.
+     * Usado al generar franjas en bloque para detectar duplicados
+     * (uk_servicio_fecha_hora) en memoria con una sola consulta.
+     *
+     * @param servicioId ID del servicio
+     * @param desde Fecha inicial del rango
+     * @param hasta Fecha final del rango
+     * @return Pares (fecha, horaInicio) de las franjas existentes
+     */
+    @Query("SELECT f.fecha AS fecha, f.horaInicio AS horaInicio FROM FranjaHoraria f " +
+            "WHERE f.servicio.id = :servicioId AND f.fecha BETWEEN :desde AND :hasta")
+    List<InicioFranja> findIniciosByServicioIdEntreFechas(
+            @Param("servicioId") Long servicioId,
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta
+    );
+
+    /**
+     * Proyección con la fecha y hora de inicio de una franja.
+     */
+    interface InicioFranja {
+        LocalDate getFecha();
+
+        LocalTime getHoraInicio();
+    }
+
+    /**
+     * Busca franjas cuyas plazas ocupadas no coinciden con sus reservas.
+     *
+     * Comprueba el invariante plazasTotales - plazasDisponibles = reservas no
+     * canceladas de la franja (activas y archivadas en reservas_historico)
+     * más plazas retenidas sin confirmar.
+     * Cualquier resultado indica overbooking o plazas perdidas por una
+     * actualización concurrente.
+     *
+     * @param desde Fecha inicial del rango
+     * @param hasta Fecha final del rango
+     * @return Franjas descuadradas con sus plazas y reservas activas (incluye retenciones)
+     */
+    @Query("SELECT new com.beautybooking.dto.response.DescuadrePlazasResponse(" +
+            "f.id, f.servicio.id, f.fecha, f.horaInicio, f.plazasTotales, f.plazasDisponibles, " +
+            "COUNT(DISTINCT r.id) + COUNT(DISTINCT h.id) + COUNT(DISTINCT t.id)) " +
+            "FROM FranjaHoraria f LEFT JOIN Reserva r ON r.franja = f " +
+            "AND r.estado <> com.beautybooking.model.enums.EstadoReserva.CANCELADA " +
+            "LEFT JOIN ReservaHistorico h ON h.franjaId = f.id " +
+            "AND h.estado <> com.beautybooking.model.enums.EstadoReserva.CANCELADA " +
+            "LEFT JOIN RetencionPlaza t ON t.franja = f " +
+            "WHERE f.fecha BETWEEN :desde AND :hasta " +
+            "GROUP BY f.id, f.servicio.id, f.fecha, f.horaInicio, f.plazasTotales, f.plazasDisponibles " +
+            "HAVING f.plazasTotales - f.plazasDisponibles <> " +
+            "COUNT(DISTINCT r.id) + COUNT(DISTINCT h.id) + COUNT(DISTINCT t.id) " +
+            "ORDER BY f.fecha, f.horaInicio")
+    List<DescuadrePlazasResponse> findDescuadresPlazas(
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta
+    );
+
+    /**
+     * Lista un lote de IDs de franjas anteriores a una fecha que nunca se han reservado.
+     * Recorre idx_franjas_fecha en orden; las franjas con reservas (aunque estén
+     * canceladas o ya archivadas en reservas_historico) se conservan como histórico.
+     *
+     * @param fecha Fecha límite (franjas anteriores a esta)
+     * @param lote Tamaño del lote (página 0)
+     * @return IDs de las franjas a eliminar
+     */
+    @Query("SELECT f.id FROM FranjaHoraria f WHERE f.fecha < :fecha " +
+            "AND NOT EXISTS (SELECT r.id FROM Reserva r WHERE r.franja = f) " +
+            "AND NOT EXISTS (SELECT h.id FROM ReservaHistorico h WHERE h.franjaId = f.id) " +
+            "ORDER BY f.fecha, f.id")
+    List<Long> findIdsSinReservasAnterioresA(@Param("fecha") LocalDate fecha, Pageable lote);
+
+    /**
+     * Elimina un lote de franjas con un único DELETE, sin cargar las entidades.
+     * Vuelve a comprobar que no tienen reservas, activas ni archivadas, por si
+     * alguna se ha reservado o archivado después de leer el lote.
      *
-     * @param fecha Fecha límite (eliminar anteriores a esta)
+     * @param ids IDs de las franjas
+     * @return Número de franjas eliminadas
      */
-    void deleteByFechaBefore(LocalDate fecha);
+    @Modifying
+    @Query("DELETE FROM FranjaHoraria f WHERE f.id IN :ids " +
+            "AND NOT EXISTS (SELECT r.id FROM Reserva r WHERE r.franja = f) " +
+            "AND NOT EXISTS (SELECT h.id FROM ReservaHistorico h WHERE h.franjaId = f.id)")
+    int deleteSinReservasByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.beautybooking.repository;
+
+import com.beautybooking.dto.response.ListaEsperaResponse;
+import com.beautybooking.model.EntradaListaEspera;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para la entidad EntradaListaEspera.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Repository
+public interface ListaEsperaRepository extends JpaRepository<EntradaListaEspera, Long> {
+
+    /**
+     * Consulta base de ListaEsperaResponse; la posición se cuenta sobre
+     * idx_lista_espera_franja (franja_id, id).
+     */
+    String SELECT_LISTA_ESPERA_RESPONSE = "SELECT new com.beautybooking.dto.response.ListaEsperaResponse(" +
+            "e.id, f.id, s.id, s.nombre, f.fecha, f.horaInicio, f.horaFin, " +
+            "(SELECT COUNT(o.id) FROM EntradaListaEspera o WHERE o.franja = f AND o.id <= e.id), " +
+            "e.notas, e.creadoEn) " +
+            "FROM EntradaListaEspera e JOIN e.franja f JOIN f.servicio s ";
+
+    /**
+     * Obtiene la primera entrada de la cola de una franja con su usuario.
+     * Lee la cabeza de idx_lista_espera_franja (franja_id, id).
+     *
+     * Se llama con la franja bloqueada, que serializa las altas y las
+     * promociones de su cola.
+     *
+     * @param franjaId ID de la franja
+     * @param primera Página 0 de tamaño 1
+     * @return La entrada más antigua, si la hay
+     */
+    @Query("SELECT e FROM EntradaListaEspera e JOIN FETCH e.usuario " +
+            "WHERE e.franja.id = :franjaId ORDER BY e.id")
+    List<EntradaListaEspera> findPrimeras(@Param("franjaId") Long franjaId, Pageable primera);
+
+    /**
+     * Verifica si un usuario ya espera plaza en una franja.
+     *
+     * @param franjaId ID de la franja
+     * @param usuarioId ID del usuario
+     * @return true si ya está en la lista
+     */
+    boolean existsByFranjaIdAndUsuarioId(Long franjaId, Long usuarioId);
+
+    /**
+     * Lista las entradas de un usuario en franjas desde una fecha,
+     * ya convertidas a ListaEsperaResponse, en orden cronológico.
+     *
+     * @param usuarioId ID del usuario
+     * @param desde Fecha inicial (normalmente hoy)
+     * @return Entradas con su posición en la cola
+     */
+    @Query(SELECT_LISTA_ESPERA_RESPONSE +
+            "WHERE e.usuario.id = :usuarioId AND f.fecha >= :desde ORDER BY f.fecha, f.horaInicio")
+    List<ListaEsperaResponse> findResponsesByUsuarioId(@Param("usuarioId") Long usuarioId,
+                                                       @Param("desde") LocalDate desde);
+
+    /**
+     * Obtiene una entrada como ListaEsperaResponse.
+     *
+     * @param id ID de la entrada
+     * @return Entrada con su posición en la cola
+     */
+    @Query(SELECT_LISTA_ESPERA_RESPONSE + "WHERE e.id = :id")
+    Optional<ListaEsperaResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Lista un lote de IDs de entradas de franjas anteriores a una fecha.
+     *
+     * @param fecha Fecha límite (exclusiva)
+     * @param lote Tamaño del lote (página 0)
+     * @return IDs de las entradas caducadas
+     */
+    @Query("SELECT e.id FROM EntradaListaEspera e WHERE e.franja.fecha < :fecha ORDER BY e.id")
+    List<Long> findIdsCaducadas(@Param("fecha") LocalDate fecha, Pageable lote);
+
+    /**
+     * Elimina un lote de entradas con un único DELETE, sin cargar las entidades.
+     *
+     * @param ids IDs de las entradas
+     * @return Número de entradas eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM EntradaListaEspera e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
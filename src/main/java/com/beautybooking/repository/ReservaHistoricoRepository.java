@@ -0,0 +1,78 @@
+package com.beautybooking.repository;
+
+import com.beautybooking.dto.response.ReservaResponse;
+import com.beautybooking.model.ReservaHistorico;
+import com.beautybooking.model.enums.EstadoReserva;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para la entidad ReservaHistorico.
+ *
+ * Copia lotes de reservas terminadas desde 'reservas' y consulta el histórico
+ * con la misma proyección a ReservaResponse que ReservaRepository.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Repository
+public interface ReservaHistoricoRepository extends JpaRepository<ReservaHistorico, Long> {
+
+    /**
+     * Proyección de ReservaHistorico a ReservaResponse con usuario y servicio en la misma consulta.
+     */
+    String SELECT_HISTORICO_RESPONSE = "SELECT new com.beautybooking.dto.response.ReservaResponse(" +
+            "h.id, u.id, u.nombre, u.email, s.id, s.nombre, h.fecha, h.horaInicio, h.horaFin, " +
+            "CAST(h.estado AS String), h.precioFinal, h.notas, h.creadoEn) " +
+            "FROM ReservaHistorico h JOIN h.usuario u JOIN h.servicio s ";
+
+    /**
+     * Copia un lote de reservas al histórico con un único INSERT ... SELECT,
+     * sin cargar las entidades. Solo copia las que siguen en los estados indicados.
+     *
+     * @param ids IDs de las reservas
+     * @param estados Estados archivables (COMPLETADA y CANCELADA)
+     * @param archivadoEn Instante del archivo
+     * @return Número de reservas copiadas
+     */
+    @Modifying
+    @Query("INSERT INTO ReservaHistorico (id, usuario, servicio, franjaId, fecha, horaInicio, horaFin, " +
+            "estado, precioFinal, notas, creadoEn, archivadoEn) " +
+            "SELECT r.id, r.usuario, r.servicio, r.franja.id, r.fecha, r.horaInicio, r.horaFin, " +
+            "r.estado, r.precioFinal, r.notas, r.creadoEn, :archivadoEn " +
+            "FROM Reserva r WHERE r.id IN :ids AND r.estado IN :estados")
+    int copiarDesdeReservas(
+            @Param("ids") Collection<Long> ids,
+            @Param("estados") Collection<EstadoReserva> estados,
+            @Param("archivadoEn") Instant archivadoEn
+    );
+
+    /**
+     * Lista las reservas archivadas de un usuario como ReservaResponse,
+     * más recientes primero.
+     *
+     * @param usuarioId ID del usuario
+     * @return Lista ordenada de ReservaResponse
+     */
+    @Query(SELECT_HISTORICO_RESPONSE +
+            "WHERE u.id = :usuarioId ORDER BY h.fecha DESC, h.horaInicio DESC")
+    List<ReservaResponse> findResponsesByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Busca una reserva archivada como ReservaResponse.
+     *
+     * @param id ID de la reserva
+     * @return ReservaResponse, vacío si no está en el histórico
+     */
+    @Query(SELECT_HISTORICO_RESPONSE + "WHERE h.id = :id")
+    Optional<ReservaResponse> findResponseById(@Param("id") Long id);
+}
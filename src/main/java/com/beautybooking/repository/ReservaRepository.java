@@ -1,16 +1,29 @@
 package com.beautybooking.repository;
 
+import com.beautybooking.dto.response.ReservaResponse;
+import com.beautybooking.model.FranjaHoraria;
 import com.beautybooking.model.Reserva;
 import com.beautybooking.model.Usuario;
 import com.beautybooking.model.enums.EstadoReserva;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad Reserva.
@@ -26,6 +39,20 @@ import java.util.List;
 @Repository
 public interface ReservaRepository extends JpaRepository<Reserva, Long> {
 
+    /**
+     * Proyección de Reserva a ReservaResponse con usuario y servicio en la misma consulta.
+     * Evita las cargas perezosas de usuario y servicio por cada reserva (N+1).
+     */
+    String SELECT_RESERVA_RESPONSE = "SELECT new com.beautybooking.dto.response.ReservaResponse(" +
+            "r.id, u.id, u.nombre, u.email, s.id, s.nombre, r.fecha, r.horaInicio, r.horaFin, " +
+            "CAST(r.estado AS String), r.precioFinal, r.notas, r.creadoEn) " +
+            "FROM Reserva r JOIN r.usuario u JOIN r.servicio s ";
+
+    /**
+     * Filas que se piden a la BD en cada lote al recorrer reservas con un Stream.
+     */
+    String FETCH_SIZE_EXPORTACION = "500";
+
     /**
      * Busca todas las reservas de un usuario.
      * Útil para mostrar "Mis Reservas" en el frontend.
@@ -44,6 +71,73 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
      */
     List<Reserva> findByUsuarioIdOrderByFechaDescHoraInicioDesc(Long usuarioId);
 
+    /**
+     * Lista las reservas de un usuario ya convertidas a ReservaResponse,
+     * más recientes primero, en una sola consulta.
+     *
+     * @param usuarioId ID del usuario
+     * @return Lista ordenada de ReservaResponse
+     */
+    @Query(SELECT_RESERVA_RESPONSE +
+            "WHERE u.id = :usuarioId ORDER BY r.fecha DESC, r.horaInicio DESC")
+    List<ReservaResponse> findResponsesByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Lista reservas paginadas por cursor (keyset) sobre (fecha, horaInicio, id).
+     *
+     * Devuelve las reservas posteriores al cursor en orden cronológico, de modo
+     * que cada página es un recorrido por rango del índice idx_reservas_fecha_hora
+     * y cuesta lo mismo sea cual sea la página (sin OFFSET).
+     * Para la primera página el cursor es (fecha inicial, 00:00, 0).
+     * El tamaño de página se indica con Pageable (sin consulta de total).
+     *
+     * @param cursorFecha Fecha de la última reserva de la página anterior
+     * @param cursorHora Hora de inicio de la última reserva de la página anterior
+     * @param cursorId ID de la última reserva de la página anterior
+     * @param hasta Fecha final del rango (inclusive)
+     * @param estado Estado a filtrar (null para todos)
+     * @param servicioId Servicio a filtrar (null para todos)
+     * @param usuarioId Usuario a filtrar (null para todos)
+     * @param pagina Tamaño de página (siempre la página 0)
+     * @return ReservaResponse posteriores al cursor, ordenadas cronológicamente
+     */
+    @Query(SELECT_RESERVA_RESPONSE +
+            "WHERE (r.fecha, r.horaInicio, r.id) > (:cursorFecha, :cursorHora, :cursorId) " +
+            "AND r.fecha <= :hasta " +
+            "AND (:estado IS NULL OR r.estado = :estado) " +
+            "AND (:servicioId IS NULL OR s.id = :servicioId) " +
+            "AND (:usuarioId IS NULL OR u.id = :usuarioId) " +
+            "ORDER BY r.fecha ASC, r.horaInicio ASC, r.id ASC")
+    List<ReservaResponse> findPaginaResponses(
+            @Param("cursorFecha") LocalDate cursorFecha,
+            @Param("cursorHora") LocalTime cursorHora,
+            @Param("cursorId") Long cursorId,
+            @Param("hasta") LocalDate hasta,
+            @Param("estado") EstadoReserva estado,
+            @Param("servicioId") Long servicioId,
+            @Param("usuarioId") Long usuarioId,
+            Pageable pagina
+    );
+
+    /**
+     * Recorre las reservas de un rango de fechas como ReservaResponse, en orden cronológico.
+     *
+     * Usa un cursor de solo avance con fetch size acotado: las filas se leen
+     * por lotes a medida que se consume el Stream, sin cargar el resultado completo.
+     * Debe consumirse y cerrarse dentro de una transacción.
+     *
+     * @param desde Fecha inicial (inclusive)
+     * @param hasta Fecha final (inclusive)
+     * @return Stream de ReservaResponse (cerrar tras usarlo)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_EXPORTACION))
+    @Query(SELECT_RESERVA_RESPONSE +
+            "WHERE r.fecha BETWEEN :desde AND :hasta ORDER BY r.fecha ASC, r.horaInicio ASC, r.id ASC")
+    Stream<ReservaResponse> streamResponsesEntreFechas(
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta
+    );
+
     /**
      * Busca reservas por estado.
      * Útil para filtrar reservas PENDIENTES, CONFIRMADAS, etc.
@@ -142,6 +236,20 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
             @Param("estados") List<EstadoReserva> estados
     );
 
+    /**
+     * Igual que findReservasDelDia, pero devolviendo ReservaResponse en una sola consulta.
+     *
+     * @param fecha Fecha (normalmente LocalDate.now())
+     * @param estados Estados a incluir
+     * @return Lista de ReservaResponse del día ordenadas por hora
+     */
+    @Query(SELECT_RESERVA_RESPONSE +
+            "WHERE r.fecha = :fecha AND r.estado IN :estados ORDER BY r.horaInicio ASC")
+    List<ReservaResponse> findResponsesDelDia(
+            @Param("fecha") LocalDate fecha,
+            @Param("estados") List<EstadoReserva> estados
+    );
+
     /**
      * Busca reservas de un usuario en una franja específica.
      * Evita duplicados: un usuario no puede reservar la misma franja dos veces.
@@ -157,4 +265,131 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
             @Param("usuarioId") Long usuarioId,
             @Param("franjaId") Long franjaId
     );
+
+    /**
+     * Lista un lote de reservas confirmadas sin recordatorio que empiezan en una
+     * ventana de tiempo, en orden cronológico, y las bloquea (SELECT ... FOR UPDATE)
+     * hasta el final de la transacción para que dos instancias no las recuerden a la vez.
+     *
+     * La ventana se recorre por rango sobre idx_reservas_fecha_hora (fecha, hora_inicio).
+     * No carga usuario ni servicio (un JOIN bloquearía también sus filas).
+     *
+     * @param fechaDesde Fecha de inicio de la ventana
+     * @param horaDesde Hora de inicio de la ventana
+     * @param fechaHasta Fecha de fin de la ventana
+     * @param horaHasta Hora de fin de la ventana
+     * @param lote Tamaño del lote (página 0)
+     * @return Reservas a recordar, las más próximas primero
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reserva r WHERE r.fecha BETWEEN :fechaDesde AND :fechaHasta " +
+            "AND (r.fecha, r.horaInicio) >= (:fechaDesde, :horaDesde) " +
+            "AND (r.fecha, r.horaInicio) <= (:fechaHasta, :horaHasta) " +
+            "AND r.estado = com.beautybooking.model.enums.EstadoReserva.CONFIRMADA " +
+            "AND r.recordatorioEnviadoEn IS NULL " +
+            "ORDER BY r.fecha, r.horaInicio, r.id")
+    List<Reserva> findSinRecordatorioEntre(
+            @Param("fechaDesde") LocalDate fechaDesde,
+            @Param("horaDesde") LocalTime horaDesde,
+            @Param("fechaHasta") LocalDate fechaHasta,
+            @Param("horaHasta") LocalTime horaHasta,
+            Pageable lote
+    );
+
+    /**
+     * Carga usuario y servicio de un lote de reservas en una sola consulta
+     * (sin bloqueo). Las reservas ya cargadas en la sesión quedan inicializadas.
+     *
+     * @param ids IDs de las reservas
+     * @return Reservas con usuario y servicio
+     */
+    @Query("SELECT r FROM Reserva r JOIN FETCH r.usuario JOIN FETCH r.servicio WHERE r.id IN :ids")
+    List<Reserva> findConUsuarioYServicioByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Marca un lote de reservas como recordadas con un único UPDATE.
+     *
+     * @param ids IDs de las reservas
+     * @param enviadoEn Instante del recordatorio
+     * @return Número de reservas marcadas
+     */
+    @Modifying
+    @Query("UPDATE Reserva r SET r.recordatorioEnviadoEn = :enviadoEn WHERE r.id IN :ids")
+    int marcarRecordatorioEnviado(@Param("ids") Collection<Long> ids, @Param("enviadoEn") Instant enviadoEn);
+
+    /**
+     * Lista un lote de IDs de reservas anteriores a una fecha en los estados indicados.
+     * Usado al archivar reservas terminadas en reservas_historico.
+     *
+     * @param fecha Fecha límite (reservas anteriores a esta)
+     * @param estados Estados archivables (COMPLETADA y CANCELADA)
+     * @param lote Tamaño del lote (página 0)
+     * @return IDs de las reservas a archivar
+     */
+    @Query("SELECT r.id FROM Reserva r WHERE r.fecha < :fecha AND r.estado IN :estados " +
+            "ORDER BY r.fecha, r.id")
+    List<Long> findIdsArchivables(
+            @Param("fecha") LocalDate fecha,
+            @Param("estados") Collection<EstadoReserva> estados,
+            Pageable lote
+    );
+
+    /**
+     * Elimina un lote de reservas con un único DELETE, sin cargar las entidades.
+     * Solo elimina las que siguen en los estados indicados (las mismas que se
+     * han copiado al histórico en la misma transacción).
+     *
+     * @param ids IDs de las reservas
+     * @param estados Estados archivables
+     * @return Número de reservas eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM Reserva r WHERE r.id IN :ids AND r.estado IN :estados")
+    int deleteByIdInAndEstadoIn(
+            @Param("ids") Collection<Long> ids,
+            @Param("estados") Collection<EstadoReserva> estados
+    );
+
+    /**
+     * Obtiene en una sola consulta todo lo necesario para validar una nueva reserva:
+     * la franja (con su servicio), el usuario y si el usuario ya tiene una reserva
+     * activa en esa franja o que solapa con su horario.
+     *
+     * Sustituye a findByEmail, findById de la franja, existsByUsuarioIdAndFranjaId
+     * y existsSolapamiento (cuatro viajes a la BD más la carga del servicio).
+     * Con la estrategia PESIMISTA la franja se bloquea antes con findByIdWithLock,
+     * así que la validación sigue siendo de dos sentencias; con CONDICIONAL y
+     * OPTIMISTA, de una.
+     *
+     * @param email Email del usuario que reserva
+     * @param franjaId ID de la franja a reservar
+     * @param estados Estados a considerar (normalmente PENDIENTE y CONFIRMADA)
+     * @return Datos de validación, vacío si no existe el usuario o la franja
+     */
+    @Query("SELECT f AS franja, u AS usuario, " +
+            "CASE WHEN EXISTS (SELECT r.id FROM Reserva r WHERE r.usuario = u AND r.franja = f " +
+            "AND r.estado IN :estados) THEN true ELSE false END AS duplicada, " +
+            "CASE WHEN EXISTS (SELECT r.id FROM Reserva r WHERE r.usuario = u AND r.fecha = f.fecha " +
+            "AND r.estado IN :estados AND r.horaInicio < f.horaFin AND r.horaFin > f.horaInicio) " +
+            "THEN true ELSE false END AS solapada " +
+            "FROM FranjaHoraria f JOIN FETCH f.servicio, Usuario u " +
+            "WHERE f.id = :franjaId AND u.email = :email")
+    Optional<ValidacionReserva> findValidacionReserva(
+            @Param("email") String email,
+            @Param("franjaId") Long franjaId,
+            @Param("estados") List<EstadoReserva> estados
+    );
+
+    /**
+     * Proyección con los datos de validación de una nueva reserva.
+     */
+    interface ValidacionReserva {
+        FranjaHoraria getFranja();
+
+        Usuario getUsuario();
+
+        Boolean getDuplicada();
+
+        Boolean getSolapada();
+    }
 }
\ No newline at end of file
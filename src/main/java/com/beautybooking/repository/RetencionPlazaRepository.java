@@ -0,0 +1,80 @@
+package com.beautybooking.repository;
+
+import com.beautybooking.model.RetencionPlaza;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para la entidad RetencionPlaza.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Repository
+public interface RetencionPlazaRepository extends JpaRepository<RetencionPlaza, Long> {
+
+    /**
+     * Obtiene una retención y la bloquea (SELECT ... FOR UPDATE) hasta el final
+     * de la transacción, para que no se confirme y se libere a la vez.
+     * Solo bloquea la fila de la retención, no la de su franja.
+     *
+     * @param id ID de la retención
+     * @return Retención bloqueada
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RetencionPlaza r WHERE r.id = :id")
+    Optional<RetencionPlaza> findByIdWithLock(@Param("id") Long id);
+
+    /**
+     * Lista un lote de retenciones caducadas, más antiguas primero, y las bloquea
+     * hasta el final de la transacción para que dos instancias no las liberen a la vez.
+     * Recorre idx_retenciones_plaza_expira (expira_en, id).
+     *
+     * @param ahora Instante actual
+     * @param lote Tamaño del lote (página 0)
+     * @return Retenciones caducadas
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RetencionPlaza r WHERE r.expiraEn <= :ahora ORDER BY r.expiraEn, r.id")
+    List<RetencionPlaza> findCaducadas(@Param("ahora") Instant ahora, Pageable lote);
+
+    /**
+     * Verifica si un usuario ya retiene una plaza de una franja.
+     *
+     * @param franjaId ID de la franja
+     * @param usuarioId ID del usuario
+     * @return true si ya la retiene
+     */
+    boolean existsByFranjaIdAndUsuarioId(Long franjaId, Long usuarioId);
+
+    /**
+     * Cuenta las retenciones vigentes de un usuario.
+     *
+     * @param usuarioId ID del usuario
+     * @param ahora Instante actual
+     * @return Número de retenciones sin caducar
+     */
+    long countByUsuarioIdAndExpiraEnAfter(Long usuarioId, Instant ahora);
+
+    /**
+     * Elimina un lote de retenciones con un único DELETE, sin cargar las entidades.
+     *
+     * @param ids IDs de las retenciones
+     * @return Número de retenciones eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM RetencionPlaza r WHERE r.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
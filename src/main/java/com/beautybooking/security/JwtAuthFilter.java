@@ -1,17 +1,24 @@
 package com.beautybooking.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
 
@@ -22,14 +29,17 @@ import java.io.IOException;
  *
  * Flujo:
  * 1. Extrae el token del header "Authorization: Bearer {token}"
- * 2. Valida el token JWT
- * 3. Extrae el email del usuario del token
- * 4. Carga el usuario desde la base de datos
+ * 2. Valida el token JWT (firma y expiración, una sola vez por petición)
+ * 3. Extrae el email del usuario de los claims verificados
+ * 4. Obtiene el usuario de la caché de usuarios autenticados (o de la BD)
+ *    o, si está configurado, directamente del rol incluido en el token
  * 5. Establece la autenticación en el SecurityContext
  * 6. Permite que la petición continúe al controller
  *
  * Si el token es inválido o no existe, la petición continúa pero sin autenticación
  * (rutas públicas funcionan, rutas protegidas devuelven 401).
+ * Si no hay conexión a la BD para cargar el usuario, se responde con el
+ * GlobalExceptionHandler (503) igual que en los controllers.
  *
  * @author Andres Eduardo Parada Prieto
  * @version 1.0
@@ -40,7 +50,22 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final PrincipalesCacheService principalesCache;
+
+    /**
+     * Resolver de excepciones de Spring MVC (bean "handlerExceptionResolver").
+     * Delega en GlobalExceptionHandler los errores ocurridos en el filtro.
+     */
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    /**
+     * Si es true, el rol se toma del claim "rol" del token sin consultar la BD.
+     * Desactivar o cambiar el rol de un usuario no afecta entonces a los
+     * tokens ya emitidos hasta que caducan.
+     * Se inyecta desde application.properties (app.seguridad.jwt.confiar-rol).
+     */
+    @Value("${app.seguridad.jwt.confiar-rol:false}")
+    private boolean confiarRolToken;
 
     /**
      * Procesa cada petición HTTP para validar el token JWT.
@@ -60,31 +85,38 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         // Extraer el header Authorization
         final String authHeader = request.getHeader("Authorization");
 
-        String jwt = null;
-        String userEmail = null;
+        Claims claims = null;
 
         // Verificar que el header existe y tiene el formato correcto
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             // Extraer el token (remover "Bearer " del inicio)
-            jwt = authHeader.substring(7);
+            String jwt = authHeader.substring(7);
 
             try {
-                // Extraer email del usuario del token
-                userEmail = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                // Token malformado o inválido - continuar sin autenticar
-                logger.warn("Error al extraer usuario del token JWT: " + e.getMessage());
+                // Verificar firma y expiración y leer los claims (una sola vez)
+                claims = jwtUtil.parseClaims(jwt);
+            } catch (JwtException | IllegalArgumentException e) {
+                // Token malformado, expirado o con firma inválida - continuar sin autenticar
+                logger.warn("Error al validar el token JWT: " + e.getMessage());
             }
         }
 
-        // Si tenemos email y el usuario NO está ya autenticado en el contexto
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // Si el token es válido y el usuario NO está ya autenticado en el contexto
+        if (claims != null && claims.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            // Cargar usuario desde la base de datos
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            // Obtener usuario del token, de la caché o de la base de datos
+            UserDetails userDetails;
+            try {
+                userDetails = cargarUsuario(claims);
+            } catch (CannotCreateTransactionException | DataAccessResourceFailureException e) {
+                // Sin conexión disponible (limitador o pool agotados): responder 503
+                handlerExceptionResolver.resolveException(request, response, null, e);
+                return;
+            }
 
-            // Validar que el token es válido para este usuario
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            // El token ya está verificado: comprobar que corresponde a este usuario
+            if (claims.getSubject().equals(userDetails.getUsername())) {
 
                 // Crear objeto de autenticación de Spring Security
                 UsernamePasswordAuthenticationToken authToken =
@@ -109,4 +141,28 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         // La petición pasa al siguiente filtro o al controller
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Obtiene el usuario autenticado de la petición.
+     *
+     * Con app.seguridad.jwt.confiar-rol=true y un token que incluye el rol,
+     * se construye a partir del token. En otro caso se obtiene de la caché de
+     * usuarios autenticados, que solo consulta la BD si no lo tiene.
+     *
+     * @param claims Claims verificados del token
+     * @return UserDetails del usuario
+     */
+    private UserDetails cargarUsuario(Claims claims) {
+        String userEmail = claims.getSubject();
+        if (confiarRolToken) {
+            String rol = claims.get(JwtUtil.CLAIM_ROL, String.class);
+            if (rol != null) {
+                return User.withUsername(userEmail)
+                        .password("")
+                        .authorities(rol)
+                        .build();
+            }
+        }
+        return principalesCache.obtener(userEmail);
+    }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.beautybooking.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -25,6 +27,9 @@ import java.util.function.Function;
  * 4. Backend valida token y extrae email del usuario
  * 5. Backend carga usuario desde BD y autoriza la petición
  *
+ * La clave de firma y el parser se construyen una sola vez al arrancar;
+ * el parser de jjwt es inmutable y seguro entre hilos.
+ *
  * @author Andres Eduardo Parada Prieto
  * @version 1.0
  * @since 2025
@@ -47,14 +52,44 @@ public class JwtUtil {
     @Value("${jwt.expiration-ms}")
     private Long expirationMs;
 
+    /**
+     * Nombre del claim con el rol del usuario.
+     */
+    public static final String CLAIM_ROL = "rol";
+
+    /**
+     * Clave HMAC derivada de jwt.secret (se construye al arrancar).
+     */
+    private SecretKey signingKey;
+
+    /**
+     * Parser que verifica firma y expiración (se construye al arrancar).
+     */
+    private JwtParser parser;
+
+    /**
+     * Construye la clave de firma y el parser a partir de la configuración.
+     */
+    @PostConstruct
+    void inicializar() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     /**
      * Genera un token JWT para un usuario.
+     * Incluye el rol del usuario en el claim "rol".
      *
      * @param userDetails Información del usuario autenticado
      * @return Token JWT firmado
      */
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        userDetails.getAuthorities().stream()
+                .findFirst()
+                .ifPresent(authority -> claims.put(CLAIM_ROL, authority.getAuthority()));
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -90,8 +125,23 @@ public class JwtUtil {
      * @return SecretKey para firmar/verificar tokens
      */
     private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
+    }
+
+    /**
+     * Verifica el token y devuelve sus claims en una sola lectura.
+     *
+     * Comprueba firma y expiración; pensado para llamarse una vez por petición
+     * y leer después email, rol, etc. de los claims devueltos.
+     *
+     * @param token Token JWT
+     * @return Claims verificados del token
+     * @throws JwtException si el token es inválido o ha expirado
+     * @throws IllegalArgumentException si el token está vacío
+     */
+    @Timed(value = "seguridad.jwt.validacion", description = "Validación de tokens JWT", histogram = true)
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     /**
@@ -136,21 +186,7 @@ public class JwtUtil {
      * @throws JwtException si el token es inválido
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    /**
-     * Verifica si el token ha expirado.
-     *
-     * @param token Token JWT
-     * @return true si expiró, false si aún es válido
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return parseClaims(token);
     }
 
     /**
@@ -165,8 +201,8 @@ public class JwtUtil {
      * @return true si el token es válido, false si no
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
     }
 
     /**
@@ -178,11 +214,9 @@ public class JwtUtil {
      */
     public Boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return !isTokenExpired(token);
+            // El parser ya rechaza tokens expirados (ExpiredJwtException)
+            parseClaims(token);
+            return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
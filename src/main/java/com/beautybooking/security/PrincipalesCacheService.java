@@ -0,0 +1,142 @@
+package com.beautybooking.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Caché de usuarios autenticados (UserDetails) por email.
+ *
+ * Evita que JwtAuthFilter consulte la base de datos en cada petición
+ * para reconstruir el mismo UserDetails.
+ *
+ * Funcionamiento:
+ * - Tamaño máximo y expiración corta configurables
+ * - Se guardan sin contraseña (el login no usa esta caché)
+ * - Cualquier modificación de un Usuario lo invalida al confirmar la
+ *   transacción (ver UsuarioPrincipalListener): desactivar o cambiar el rol
+ *   se aplica en la siguiente petición
+ * - Métricas cache.gets (hit/miss), cache.evictions, cache.size con cache=principales
+ *
+ * Se desactiva con app.seguridad.cache-principales.habilitado=false.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+@RequiredArgsConstructor
+public class PrincipalesCacheService {
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Indica si la caché está activa.
+     * Se inyecta desde application.properties (app.seguridad.cache-principales.habilitado).
+     */
+    @Value("${app.seguridad.cache-principales.habilitado:true}")
+    private boolean habilitado;
+
+    /**
+     * Tiempo máximo que un usuario permanece en caché, en segundos.
+     * Limita cuánto tarda en aplicarse un cambio hecho fuera de la aplicación.
+     */
+    @Value("${app.seguridad.cache-principales.ttl-segundos:60}")
+    private long ttlSegundos;
+
+    /**
+     * Número máximo de usuarios en caché.
+     */
+    @Value("${app.seguridad.cache-principales.max-entradas:10000}")
+    private long maxEntradas;
+
+    private Cache<String, UserDetails> cache;
+
+    /**
+     * Construye la caché y registra sus métricas en Micrometer.
+     */
+    @PostConstruct
+    void inicializar() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principales");
+    }
+
+    /**
+     * Obtiene el usuario activo de la caché o lo carga desde la BD.
+     *
+     * @param email Email del usuario
+     * @return UserDetails sin contraseña
+     * @throws org.springframework.security.core.userdetails.UsernameNotFoundException
+     *         si el usuario no existe o está inactivo (no se guarda en caché)
+     */
+    public UserDetails obtener(String email) {
+        if (!habilitado) {
+            return userDetailsService.loadUserByUsername(email);
+        }
+        return cache.get(email, clave -> sinContrasena(userDetailsService.loadUserByUsername(clave)));
+    }
+
+    /**
+     * Invalida un usuario cuando la transacción actual se confirma.
+     * Sin transacción activa, invalida inmediatamente.
+     *
+     * @param email Email del usuario modificado
+     */
+    public void invalidar(String email) {
+        if (!habilitado || email == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(email);
+            return;
+        }
+
+        Invalidaciones invalidaciones = (Invalidaciones) TransactionSynchronizationManager.getResource(this);
+        if (invalidaciones == null) {
+            invalidaciones = new Invalidaciones();
+            TransactionSynchronizationManager.bindResource(this, invalidaciones);
+            TransactionSynchronizationManager.registerSynchronization(invalidaciones);
+        }
+        invalidaciones.emails.add(email);
+    }
+
+    private UserDetails sinContrasena(UserDetails userDetails) {
+        return User.withUserDetails(userDetails).password("").build();
+    }
+
+    /**
+     * Emails pendientes de invalidar cuando termine la transacción.
+     */
+    private final class Invalidaciones implements TransactionSynchronization {
+
+        private final Set<String> emails = new HashSet<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PrincipalesCacheService.this);
+
+            if (status == STATUS_COMMITTED) {
+                cache.invalidateAll(emails);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.beautybooking.security;
+
+import com.beautybooking.model.Usuario;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA de Usuario que invalida su entrada en la caché de usuarios autenticados.
+ *
+ * Cualquier cambio guardado (activo, rol, contraseña...) o el borrado del
+ * usuario lo saca de PrincipalesCacheService al confirmar la transacción.
+ *
+ * La caché se obtiene al usarla (ObjectProvider): Hibernate crea el listener
+ * mientras construye el EntityManagerFactory, del que depende la propia caché.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+public class UsuarioPrincipalListener {
+
+    private final ObjectProvider<PrincipalesCacheService> principalesCache;
+
+    @PostUpdate
+    @PostRemove
+    void invalidarPrincipal(Usuario usuario) {
+        principalesCache.ifAvailable(cache -> cache.invalidar(usuario.getEmail()));
+    }
+}
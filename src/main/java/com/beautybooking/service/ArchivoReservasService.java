@@ -0,0 +1,190 @@
+package com.beautybooking.service;
+
+import com.beautybooking.model.enums.EstadoReserva;
+import com.beautybooking.repository.ReservaHistoricoRepository;
+import com.beautybooking.repository.ReservaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Servicio de archivo de reservas terminadas.
+ *
+ * Mueve periódicamente las reservas COMPLETADAS y CANCELADAS anteriores al
+ * horizonte de archivo a reservas_historico, para que las consultas sobre
+ * 'reservas' (solapamientos, citas del día, reservas por usuario) recorran
+ * una tabla pequeña:
+ * - Por lotes de tamaño fijo: una consulta de IDs, un INSERT ... SELECT al
+ *   histórico y un DELETE de los mismos IDs, sin cargar las entidades
+ * - Cada lote en su propia transacción: una reserva está en una tabla o en
+ *   la otra, nunca en las dos ni en ninguna
+ * - Con una pausa entre lotes y un máximo de lotes por ejecución
+ *
+ * Los estados COMPLETADA y CANCELADA son finales, por lo que las reservas
+ * archivadas ya no se modifican. ReservaService las incluye en el historial
+ * del usuario.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ArchivoReservasService {
+
+    // Estados finales que se archivan
+    private static final List<EstadoReserva> ESTADOS_ARCHIVABLES =
+            List.of(EstadoReserva.COMPLETADA, EstadoReserva.CANCELADA);
+
+    private final ReservaRepository reservaRepository;
+    private final ReservaHistoricoRepository historicoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Indica si el archivo programado está activo.
+     * Se inyecta desde application.properties (app.reservas.archivo.habilitado).
+     */
+    @Value("${app.reservas.archivo.habilitado:true}")
+    private boolean habilitado;
+
+    /**
+     * Antigüedad (en días) a partir de la cual se archivan las reservas terminadas.
+     * Se inyecta desde application.properties (app.reservas.archivo.dias-horizonte).
+     */
+    @Value("${app.reservas.archivo.dias-horizonte:90}")
+    private int diasHorizonte;
+
+    /**
+     * Reservas archivadas por lote (y por transacción).
+     * Se inyecta desde application.properties (app.reservas.archivo.tamanio-lote).
+     */
+    @Value("${app.reservas.archivo.tamanio-lote:500}")
+    private int tamanioLote;
+
+    /**
+     * Pausa entre lotes (ms).
+     * Se inyecta desde application.properties (app.reservas.archivo.pausa-ms).
+     */
+    @Value("${app.reservas.archivo.pausa-ms:200}")
+    private long pausaMs;
+
+    /**
+     * Lotes máximos por ejecución; el resto se archiva en la siguiente.
+     * Se inyecta desde application.properties (app.reservas.archivo.max-lotes).
+     */
+    @Value("${app.reservas.archivo.max-lotes:200}")
+    private int maxLotes;
+
+    /**
+     * Ejecuta el archivo según app.reservas.archivo.cron (por defecto, cada noche).
+     */
+    @Scheduled(cron = "${app.reservas.archivo.cron:0 0 3 * * *}", zone = "Europe/Madrid")
+    public void archivarProgramado() {
+        if (!habilitado) {
+            return;
+        }
+
+        archivar(LocalDate.now().minusDays(diasHorizonte));
+    }
+
+    /**
+     * Archiva por lotes las reservas terminadas anteriores a una fecha.
+     *
+     * @param fechaLimite Fecha límite (se archivan las reservas anteriores)
+     * @return Número de reservas archivadas
+     */
+    public int archivar(LocalDate fechaLimite) {
+        Counter archivadas = Counter.builder("reservas.archivo.archivadas")
+                .description("Reservas terminadas movidas al histórico")
+                .register(meterRegistry);
+
+        long inicio = System.currentTimeMillis();
+        int total = 0;
+        int lotes = 0;
+
+        while (lotes < maxLotes) {
+            Integer archivadasLote;
+            try {
+                archivadasLote = transactionTemplate.execute(status -> archivarLote(fechaLimite));
+            } catch (DataIntegrityViolationException e) {
+                // Un id ya presente en el histórico: se deshace el lote y se detiene el archivo
+                log.error("Archivo de reservas detenido: el lote no se ha podido copiar al histórico", e);
+                break;
+            }
+            lotes++;
+
+            if (archivadasLote == null || archivadasLote == 0) {
+                break;
+            }
+
+            total += archivadasLote;
+            archivadas.increment(archivadasLote);
+
+            if (archivadasLote < tamanioLote || !pausar()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Archivo de reservas anteriores a {}: {} archivadas en {} lotes ({} ms)",
+                    fechaLimite, total, lotes, System.currentTimeMillis() - inicio);
+        }
+
+        return total;
+    }
+
+    /**
+     * Copia un lote de reservas al histórico y las elimina de 'reservas'
+     * dentro de la transacción actual.
+     *
+     * @param fechaLimite Fecha límite
+     * @return Reservas archivadas en el lote
+     */
+    private int archivarLote(LocalDate fechaLimite) {
+        List<Long> ids = reservaRepository.findIdsArchivables(
+                fechaLimite, ESTADOS_ARCHIVABLES, PageRequest.of(0, tamanioLote));
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        int copiadas = historicoRepository.copiarDesdeReservas(ids, ESTADOS_ARCHIVABLES, Instant.now());
+        int eliminadas = reservaRepository.deleteByIdInAndEstadoIn(ids, ESTADOS_ARCHIVABLES);
+
+        if (copiadas != eliminadas) {
+            // Alguna reserva ha cambiado entre las dos sentencias: se deshace el lote
+            throw new IllegalStateException(
+                    "Archivo de reservas: " + copiadas + " copiadas y " + eliminadas + " eliminadas");
+        }
+
+        return eliminadas;
+    }
+
+    /**
+     * Espera pausaMs entre lotes.
+     *
+     * @return false si el hilo se ha interrumpido (el archivo se detiene)
+     */
+    private boolean pausar() {
+        try {
+            Thread.sleep(pausaMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.beautybooking.service;
+
+import com.beautybooking.exception.BusinessException;
+import com.beautybooking.model.enums.MotivoRechazoReserva;
+import com.beautybooking.repository.FranjaHorariaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contador de plazas en memoria por franja horaria.
+ *
+ * Permite admitir o rechazar una reserva antes de abrir ninguna transacción:
+ * las franjas completas se rechazan sin acceder a la base de datos.
+ * La base de datos sigue siendo la fuente de verdad; el contador solo
+ * rechaza cuando sabe que la franja no tiene plazas.
+ *
+ * Funcionamiento:
+ * - Un contador atómico por franja (ConcurrentHashMap por ID)
+ * - Carga de plazas_disponibles de las franjas desde hoy al arrancar y al cambiar de día
+ * - Cada app.reservas.contador-plazas.recarga-ms solo se recargan las franjas que
+ *   el contador tiene completas: son las únicas que rechaza sin consultar la BD
+ * - Se reconcilia al confirmar o deshacer cada transacción de reservas
+ * - Franjas desconocidas (creadas en otra instancia) se admiten y decide la BD
+ *
+ * Se activa con app.reservas.contador-plazas.habilitado=true. Con varias
+ * instancias de la API cada una mantiene su propio contador y no ve las plazas
+ * que liberan las demás hasta la siguiente recarga: una franja completa puede
+ * rechazarse como mucho recarga-ms después de quedar libre en otra instancia.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ContadorPlazasService {
+
+    // Franjas por consulta (lista IN) al recargar las franjas completas
+    private static final int LOTE_RECARGA = 1000;
+
+    private final FranjaHorariaRepository franjaRepository;
+    private final MetricasReservasService metricas;
+
+    /**
+     * Contadores de plazas disponibles por ID de franja.
+     */
+    private final ConcurrentMap<Long, AtomicInteger> contadores = new ConcurrentHashMap<>();
+
+    /**
+     * Día de la última carga completa; al cambiar de día se vuelve a cargar todo.
+     */
+    private volatile LocalDate ultimaCargaCompleta;
+
+    /**
+     * Indica si el contador está activo.
+     * Se inyecta desde application.properties (app.reservas.contador-plazas.habilitado).
+     */
+    @Value("${app.reservas.contador-plazas.habilitado:false}")
+    private boolean habilitado;
+
+    /**
+     * Carga las plazas disponibles de las franjas desde hoy al arrancar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarPlazas() {
+        if (!habilitado) {
+            return;
+        }
+
+        log.info("Contador de plazas cargado con {} franjas", recargar());
+    }
+
+    /**
+     * Vuelve a cargar desde la BD las franjas completas cada app.reservas.contador-plazas.recarga-ms,
+     * para recoger las plazas liberadas en otras instancias o fuera de las transacciones
+     * de reservas. El primer pase de cada día recarga todas las franjas desde hoy.
+     *
+     * Las franjas con plazas en el contador no se recargan: si tiene de más, la BD
+     * rechaza la reserva y la franja queda completa; si tiene de menos, llega a 0
+     * y se recarga en el siguiente pase.
+     */
+    @Scheduled(fixedDelayString = "${app.reservas.contador-plazas.recarga-ms:30000}",
+            initialDelayString = "${app.reservas.contador-plazas.recarga-ms:30000}")
+    public void recargarPlazas() {
+        if (!habilitado) {
+            return;
+        }
+
+        if (LocalDate.now().equals(ultimaCargaCompleta)) {
+            recargarCompletas();
+        } else {
+            recargar();
+        }
+    }
+
+    /**
+     * Rechaza la reserva si se sabe que la franja está completa.
+     * No accede a la base de datos; se usa antes de abrir la transacción.
+     *
+     * @param franjaId ID de la franja
+     * @throws BusinessException si la franja no tiene plazas
+     */
+    public void comprobarDisponibilidad(Long franjaId) {
+        if (!habilitado) {
+            return;
+        }
+
+        AtomicInteger contador = contadores.get(franjaId);
+        if (contador != null && contador.get() <= 0) {
+            throw franjaCompleta();
+        }
+    }
+
+    /**
+     * Ocupa una plaza en el contador dentro de la transacción actual.
+     * Si la transacción se deshace, la plaza se devuelve al contador.
+     *
+     * @param franjaId ID de la franja
+     * @throws BusinessException si se sabe que la franja no tiene plazas
+     */
+    public void ocupar(Long franjaId) {
+        if (!habilitado) {
+            return;
+        }
+
+        AtomicInteger contador = contadores.get(franjaId);
+        if (contador == null) {
+            // Franja desconocida: decide la base de datos
+            return;
+        }
+
+        int plazas;
+        do {
+            plazas = contador.get();
+            if (plazas <= 0) {
+                throw franjaCompleta();
+            }
+        } while (!contador.compareAndSet(plazas, plazas - 1));
+
+        movimientos().ocupadas.merge(franjaId, 1, Integer::sum);
+    }
+
+    /**
+     * Libera una plaza en el contador cuando la transacción actual se confirma.
+     * Se usa al cancelar una reserva o al moverla a otra franja.
+     *
+     * @param franjaId ID de la franja
+     */
+    public void liberar(Long franjaId) {
+        if (!habilitado) {
+            return;
+        }
+        movimientos().liberadas.merge(franjaId, 1, Integer::sum);
+    }
+
+    /**
+     * Registra que la base de datos ha rechazado la franja por estar completa.
+     * Al terminar la transacción el contador de la franja queda a 0.
+     *
+     * @param franjaId ID de la franja
+     */
+    public void marcarCompleta(Long franjaId) {
+        if (!habilitado) {
+            return;
+        }
+        movimientos().completas.add(franjaId);
+    }
+
+    /**
+     * Fija las plazas disponibles de una franja cuando la transacción se confirma.
+     * Se usa al crear o actualizar franjas desde administración.
+     *
+     * @param franjaId ID de la franja
+     * @param plazasDisponibles Plazas disponibles guardadas en la BD
+     */
+    public void fijar(Long franjaId, int plazasDisponibles) {
+        if (!habilitado) {
+            return;
+        }
+        movimientos().fijadas.put(franjaId, plazasDisponibles);
+    }
+
+    /**
+     * Elimina el contador de una franja cuando la transacción se confirma.
+     *
+     * @param franjaId ID de la franja eliminada
+     */
+    public void eliminar(Long franjaId) {
+        if (!habilitado) {
+            return;
+        }
+        movimientos().eliminadas.add(franjaId);
+    }
+
+    /**
+     * Fija los contadores a las plazas guardadas en la BD de las franjas desde hoy
+     * y descarta los de franjas anteriores.
+     *
+     * Los contadores existentes se actualizan en sitio: una transacción en curso que
+     * ya ocupó plaza en el contador puede dejarlo una plaza por encima al terminar,
+     * lo que solo admite de más (decide la BD) hasta la siguiente recarga.
+     *
+     * @return Número de franjas cargadas
+     */
+    private int recargar() {
+        LocalDate hoy = LocalDate.now();
+        Set<Long> cargadas = new HashSet<>();
+        for (FranjaHorariaRepository.PlazasFranja plazas :
+                franjaRepository.findPlazasDisponiblesDesde(hoy)) {
+            contadores.computeIfAbsent(plazas.getId(), id -> new AtomicInteger())
+                    .set(plazas.getPlazasDisponibles());
+            cargadas.add(plazas.getId());
+        }
+
+        contadores.keySet().retainAll(cargadas);
+        ultimaCargaCompleta = hoy;
+        return cargadas.size();
+    }
+
+    /**
+     * Fija los contadores que están a 0 a las plazas guardadas en la BD, en
+     * consultas por ID de LOTE_RECARGA franjas, y descarta los de franjas eliminadas.
+     *
+     * @return Número de franjas recargadas
+     */
+    private int recargarCompletas() {
+        List<Long> completas = contadores.entrySet().stream()
+                .filter(contador -> contador.getValue().get() <= 0)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        for (int inicio = 0; inicio < completas.size(); inicio += LOTE_RECARGA) {
+            List<Long> lote = completas.subList(inicio, Math.min(inicio + LOTE_RECARGA, completas.size()));
+            Set<Long> encontradas = new HashSet<>();
+            for (FranjaHorariaRepository.PlazasFranja plazas : franjaRepository.findPlazasDisponiblesByIdIn(lote)) {
+                AtomicInteger contador = contadores.get(plazas.getId());
+                if (contador != null) {
+                    contador.set(plazas.getPlazasDisponibles());
+                }
+                encontradas.add(plazas.getId());
+            }
+            lote.stream().filter(id -> !encontradas.contains(id)).forEach(contadores::remove);
+        }
+        return completas.size();
+    }
+
+    /**
+     * Obtiene (o registra) los movimientos pendientes de la transacción actual.
+     *
+     * @return Movimientos ligados a la transacción
+     */
+    private Movimientos movimientos() {
+        Movimientos movimientos = (Movimientos) TransactionSynchronizationManager.getResource(this);
+        if (movimientos == null) {
+            movimientos = new Movimientos();
+            TransactionSynchronizationManager.bindResource(this, movimientos);
+            TransactionSynchronizationManager.registerSynchronization(movimientos);
+        }
+        return movimientos;
+    }
+
+    private BusinessException franjaCompleta() {
+        metricas.registrarRechazo(MotivoRechazoReserva.SIN_PLAZAS);
+        return new BusinessException("No hay plazas disponibles para esta franja horaria");
+    }
+
+    /**
+     * Cambios en el contador pendientes de que termine la transacción.
+     *
+     * Confirmada: se aplican plazas liberadas, fijadas y eliminadas.
+     * Deshecha: se devuelven las plazas ocupadas en el contador.
+     * En ambos casos, las franjas rechazadas por la BD quedan a 0.
+     */
+    private final class Movimientos implements TransactionSynchronization {
+
+        private final Map<Long, Integer> ocupadas = new HashMap<>();
+        private final Map<Long, Integer> liberadas = new HashMap<>();
+        private final Map<Long, Integer> fijadas = new HashMap<>();
+        private final Set<Long> eliminadas = new HashSet<>();
+        private final Set<Long> completas = new HashSet<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ContadorPlazasService.this);
+
+            if (status == STATUS_COMMITTED) {
+                liberadas.forEach((franjaId, plazas) -> {
+                    AtomicInteger contador = contadores.get(franjaId);
+                    if (contador != null) {
+                        contador.addAndGet(plazas);
+                    }
+                });
+                fijadas.forEach((franjaId, plazas) ->
+                        contadores.put(franjaId, new AtomicInteger(plazas)));
+                eliminadas.forEach(contadores::remove);
+            } else {
+                ocupadas.forEach((franjaId, plazas) -> {
+                    AtomicInteger contador = contadores.get(franjaId);
+                    if (contador != null && !completas.contains(franjaId)) {
+                        contador.addAndGet(plazas);
+                    }
+                });
+            }
+
+            completas.forEach(franjaId -> contadores.put(franjaId, new AtomicInteger(0)));
+        }
+    }
+}
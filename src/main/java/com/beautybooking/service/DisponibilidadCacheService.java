@@ -0,0 +1,202 @@
+package com.beautybooking.service;
+
+import com.beautybooking.dto.response.CalendarioDiaResponse;
+import com.beautybooking.dto.response.FranjaResponse;
+import com.beautybooking.model.FranjaHoraria;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Caché de franjas disponibles por servicio y fecha.
+ *
+ * Guarda las listas de FranjaResponse ya construidas que devuelve
+ * GET /franjas/disponibles, el endpoint público más consultado, y el
+ * resumen mensual de GET /franjas/calendario.
+ *
+ * Funcionamiento:
+ * - Claves (servicioId, fecha) y (servicioId, mes), tamaño máximo y
+ *   expiración configurables
+ * - Las operaciones que cambian plazas o franjas invalidan la fecha afectada
+ *   y su mes al confirmar la transacción (nunca antes, para no recargar datos antiguos)
+ * - Una invalidación espera a que termine la carga en curso de esa clave,
+ *   de modo que una lectura anterior al commit no queda guardada
+ * - Métricas cache.gets (hit/miss), cache.evictions, cache.size con
+ *   cache=disponibilidad y cache=calendario
+ *
+ * Se desactiva con app.franjas.cache-disponibilidad.habilitado=false.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+@RequiredArgsConstructor
+public class DisponibilidadCacheService {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Indica si la caché está activa.
+     * Se inyecta desde application.properties (app.franjas.cache-disponibilidad.habilitado).
+     */
+    @Value("${app.franjas.cache-disponibilidad.habilitado:true}")
+    private boolean habilitado;
+
+    /**
+     * Tiempo máximo que una entrada permanece en caché, en segundos.
+     */
+    @Value("${app.franjas.cache-disponibilidad.ttl-segundos:30}")
+    private long ttlSegundos;
+
+    /**
+     * Número máximo de combinaciones (servicio, fecha) en caché.
+     */
+    @Value("${app.franjas.cache-disponibilidad.max-entradas:1000}")
+    private long maxEntradas;
+
+    private Cache<Clave, List<FranjaResponse>> cache;
+
+    private Cache<ClaveMes, List<CalendarioDiaResponse>> calendario;
+
+    /**
+     * Construye la caché y registra sus métricas en Micrometer.
+     */
+    @PostConstruct
+    void inicializar() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "disponibilidad");
+
+        calendario = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, calendario, "calendario");
+    }
+
+    /**
+     * Obtiene las franjas disponibles de la caché o las carga si no están.
+     *
+     * @param servicioId ID del servicio
+     * @param fecha Fecha consultada
+     * @param cargar Consulta a la BD que construye la lista
+     * @return Lista de FranjaResponse disponibles (no modificable)
+     */
+    public List<FranjaResponse> obtener(Long servicioId, LocalDate fecha, Supplier<List<FranjaResponse>> cargar) {
+        if (!habilitado) {
+            return cargar.get();
+        }
+        return cache.get(new Clave(servicioId, fecha), clave -> List.copyOf(cargar.get()));
+    }
+
+    /**
+     * Obtiene el resumen mensual de un servicio de la caché o lo carga si no está.
+     *
+     * @param servicioId ID del servicio
+     * @param mes Mes consultado
+     * @param cargar Consulta agregada a la BD
+     * @return Resumen por día (no modificable)
+     */
+    public List<CalendarioDiaResponse> obtenerCalendario(Long servicioId, YearMonth mes,
+                                                         Supplier<List<CalendarioDiaResponse>> cargar) {
+        if (!habilitado) {
+            return cargar.get();
+        }
+        return calendario.get(new ClaveMes(servicioId, mes), clave -> List.copyOf(cargar.get()));
+    }
+
+    /**
+     * Invalida la disponibilidad del servicio y fecha de una franja
+     * cuando la transacción actual se confirma.
+     * Sin transacción activa, invalida inmediatamente.
+     *
+     * @param franja Franja modificada (puede ser null si se eliminó)
+     */
+    public void invalidar(FranjaHoraria franja) {
+        if (franja != null) {
+            invalidar(franja.getServicio().getId(), franja.getFecha());
+        }
+    }
+
+    /**
+     * Invalida la disponibilidad de un servicio y fecha (y el resumen de su mes)
+     * cuando la transacción actual se confirma.
+     *
+     * @param servicioId ID del servicio
+     * @param fecha Fecha afectada
+     */
+    public void invalidar(Long servicioId, LocalDate fecha) {
+        if (!habilitado) {
+            return;
+        }
+
+        Clave clave = new Clave(servicioId, fecha);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(clave);
+            calendario.invalidate(clave.mes());
+            return;
+        }
+
+        Invalidaciones invalidaciones = (Invalidaciones) TransactionSynchronizationManager.getResource(this);
+        if (invalidaciones == null) {
+            invalidaciones = new Invalidaciones();
+            TransactionSynchronizationManager.bindResource(this, invalidaciones);
+            TransactionSynchronizationManager.registerSynchronization(invalidaciones);
+        }
+        invalidaciones.claves.add(clave);
+    }
+
+    /**
+     * Clave de la caché: servicio y fecha.
+     */
+    private record Clave(Long servicioId, LocalDate fecha) {
+
+        ClaveMes mes() {
+            return new ClaveMes(servicioId, YearMonth.from(fecha));
+        }
+    }
+
+    /**
+     * Clave de la caché de calendario: servicio y mes.
+     */
+    private record ClaveMes(Long servicioId, YearMonth mes) {
+    }
+
+    /**
+     * Claves pendientes de invalidar cuando termine la transacción.
+     */
+    private final class Invalidaciones implements TransactionSynchronization {
+
+        private final Set<Clave> claves = new HashSet<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DisponibilidadCacheService.this);
+
+            if (status == STATUS_COMMITTED) {
+                cache.invalidateAll(claves);
+                claves.forEach(clave -> calendario.invalidate(clave.mes()));
+            }
+        }
+    }
+}
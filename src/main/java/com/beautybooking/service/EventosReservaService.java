@@ -0,0 +1,63 @@
+package com.beautybooking.service;
+
+import com.beautybooking.model.EventoReserva;
+import com.beautybooking.model.Reserva;
+import com.beautybooking.model.enums.TipoEventoReserva;
+import com.beautybooking.repository.EventoReservaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Servicio de registro de eventos de reservas (outbox).
+ *
+ * ReservaService registra aquí cada cambio de estado de una reserva. El evento
+ * se inserta en la transacción del cambio (se exige una transacción activa):
+ * si el cambio se deshace, el evento también. La publicación la hace después
+ * RelayEventosReservaService, fuera de la petición.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+@RequiredArgsConstructor
+public class EventosReservaService {
+
+    private final EventoReservaRepository eventoRepository;
+
+    /**
+     * Registra un cambio de la reserva en la transacción actual.
+     *
+     * @param tipo Cambio de la reserva
+     * @param reserva Reserva tras el cambio
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(TipoEventoReserva tipo, Reserva reserva) {
+        registrar(tipo, reserva, null);
+    }
+
+    /**
+     * Registra un cambio de la reserva en la transacción actual.
+     *
+     * @param tipo Cambio de la reserva
+     * @param reserva Reserva tras el cambio
+     * @param franjaAnteriorId Franja anterior si el cambio ha movido la reserva (o null)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(TipoEventoReserva tipo, Reserva reserva, Long franjaAnteriorId) {
+        EventoReserva evento = new EventoReserva();
+        evento.setTipo(tipo);
+        evento.setReservaId(reserva.getId());
+        evento.setUsuario(reserva.getUsuario());
+        evento.setServicio(reserva.getServicio());
+        evento.setFranjaId(reserva.getFranja() != null ? reserva.getFranja().getId() : null);
+        evento.setFranjaAnteriorId(franjaAnteriorId);
+        evento.setFecha(reserva.getFecha());
+        evento.setHoraInicio(reserva.getHoraInicio());
+        evento.setHoraFin(reserva.getHoraFin());
+
+        eventoRepository.save(evento);
+    }
+}
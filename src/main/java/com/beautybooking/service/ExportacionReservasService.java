@@ -0,0 +1,141 @@
+package com.beautybooking.service;
+
+import com.beautybooking.dto.response.ReservaResponse;
+import com.beautybooking.exception.BusinessException;
+import com.beautybooking.model.enums.FormatoExportacion;
+import com.beautybooking.repository.ReservaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Servicio de exportación de reservas para contabilidad.
+ *
+ * Recorre las reservas con un cursor de solo avance (fetch size acotado) y
+ * escribe cada fila directamente en la respuesta, sin construir la lista
+ * completa en memoria: exportar un año de reservas usa memoria constante.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportacionReservasService {
+
+    private static final String CABECERA_CSV = "id,usuarioId,usuarioNombre,usuarioEmail,servicioId,servicioNombre," +
+            "fecha,horaInicio,horaFin,estado,precioFinal,notas,creadoEn";
+
+    private final ReservaRepository reservaRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Valida el rango de fechas de una exportación.
+     * Se llama antes de empezar a escribir la respuesta, para poder devolver un error.
+     *
+     * @param desde Fecha inicial
+     * @param hasta Fecha final
+     * @throws BusinessException si el rango no es válido
+     */
+    public void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            throw new BusinessException("La fecha inicial debe ser anterior a la fecha final");
+        }
+    }
+
+    /**
+     * Escribe las reservas de un rango de fechas en el formato indicado.
+     *
+     * @param desde Fecha inicial (inclusive)
+     * @param hasta Fecha final (inclusive)
+     * @param formato CSV o NDJSON
+     * @param salida Flujo de salida (normalmente el de la respuesta HTTP)
+     * @throws IOException si falla la escritura
+     */
+    @Transactional(readOnly = true)
+    public void exportar(LocalDate desde, LocalDate hasta, FormatoExportacion formato, OutputStream salida)
+            throws IOException {
+        validarRango(desde, hasta);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+
+        if (formato == FormatoExportacion.CSV) {
+            writer.write(CABECERA_CSV);
+            writer.write('\n');
+        }
+
+        try (Stream<ReservaResponse> reservas = reservaRepository.streamResponsesEntreFechas(desde, hasta)) {
+            Iterator<ReservaResponse> it = reservas.iterator();
+            while (it.hasNext()) {
+                ReservaResponse reserva = it.next();
+                writer.write(formato == FormatoExportacion.CSV
+                        ? filaCsv(reserva)
+                        : objectMapper.writeValueAsString(reserva));
+                writer.write('\n');
+            }
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Construye una fila CSV con los campos de la reserva.
+     *
+     * @param r Reserva a exportar
+     * @return Fila CSV (sin salto de línea)
+     */
+    private String filaCsv(ReservaResponse r) {
+        return String.join(",",
+                campoCsv(r.getId()),
+                campoCsv(r.getUsuarioId()),
+                campoCsv(r.getUsuarioNombre()),
+                campoCsv(r.getUsuarioEmail()),
+                campoCsv(r.getServicioId()),
+                campoCsv(r.getServicioNombre()),
+                campoCsv(r.getFecha()),
+                campoCsv(r.getHoraInicio()),
+                campoCsv(r.getHoraFin()),
+                campoCsv(r.getEstado()),
+                campoCsv(r.getPrecioFinal()),
+                campoCsv(r.getNotas()),
+                campoCsv(r.getCreadoEn())
+        );
+    }
+
+    /**
+     * Escapa un campo CSV (RFC 4180).
+     *
+     * Entrecomilla los valores con comas, comillas o saltos de línea, y antepone
+     * un apóstrofo a los que empiezan por =, +, - o @ para que una hoja de
+     * cálculo no los interprete como fórmulas.
+     *
+     * @param valor Valor del campo (puede ser null)
+     * @return Campo escapado
+     */
+    private String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+
+        String texto = valor.toString();
+        if (valor instanceof String && !texto.isEmpty() && "=+-@".indexOf(texto.charAt(0)) >= 0) {
+            texto = "'" + texto;
+        }
+
+        if (texto.contains(",") || texto.contains("\"") || texto.contains("\n") || texto.contains("\r")) {
+            return "\"" + texto.replace("\"", "\"\"") + "\"";
+        }
+        return texto;
+    }
+}
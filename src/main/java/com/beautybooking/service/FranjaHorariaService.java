@@ -2,6 +2,8 @@ package com.beautybooking.service;
 
 import com.beautybooking.dto.request.FranjaRequest;
 import com.beautybooking.dto.response.ApiResponse;
+import com.beautybooking.dto.response.CalendarioDiaResponse;
+import com.beautybooking.dto.response.DescuadrePlazasResponse;
 import com.beautybooking.dto.response.FranjaResponse;
 import com.beautybooking.exception.BusinessException;
 import com.beautybooking.exception.ResourceNotFoundException;
@@ -9,12 +11,16 @@ import com.beautybooking.model.FranjaHoraria;
 import com.beautybooking.model.Servicio;
 import com.beautybooking.repository.FranjaHorariaRepository;
 import com.beautybooking.repository.ServicioRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,30 +38,104 @@ import java.util.stream.Collectors;
  */
 @Service
 @RequiredArgsConstructor
+@Timed(value = "franjas.servicio", histogram = true)
 public class FranjaHorariaService {
 
     private final FranjaHorariaRepository franjaRepository;
     private final ServicioRepository servicioRepository;
+    private final ContadorPlazasService contadorPlazas;
+    private final DisponibilidadCacheService disponibilidadCache;
 
     // Horarios permitidos según reglas de negocio
     private static final LocalTime HORA_APERTURA = LocalTime.of(7, 0);
     private static final LocalTime HORA_CIERRE = LocalTime.of(22, 0);
 
+    // Límites de la búsqueda de disponibilidad en varios servicios
+    private static final int BUSQUEDA_MAX_SERVICIOS = 20;
+    private static final int BUSQUEDA_MAX_DIAS = 31;
+    private static final int BUSQUEDA_LIMITE_DEFECTO = 20;
+    private static final int BUSQUEDA_LIMITE_MAXIMO = 100;
+
     /**
      * Obtiene franjas disponibles para un servicio en una fecha.
      * Solo muestra franjas con plazas disponibles > 0.
      *
+     * Se sirve desde la caché de disponibilidad; sin transacción propia para
+     * que los aciertos no ocupen una conexión a la BD.
+     *
      * @param servicioId ID del servicio
      * @param fecha Fecha a consultar
      * @return Lista de FranjaResponse disponibles
      */
-    @Transactional(readOnly = true)
     public List<FranjaResponse> getFranjasDisponibles(Long servicioId, LocalDate fecha) {
-        return franjaRepository.findDisponiblesByServicioIdAndFecha(servicioId, fecha).stream()
+        return disponibilidadCache.obtener(servicioId, fecha, () ->
+                franjaRepository.findDisponiblesByServicioIdAndFecha(servicioId, fecha).stream()
+                        .map(this::mapToResponse)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Busca las próximas franjas disponibles de varios servicios.
+     *
+     * Para widgets tipo "próxima cita libre": una sola consulta para todos los
+     * servicios y días del rango, ordenada por fecha y hora de inicio.
+     *
+     * @param servicioIds IDs de los servicios (máximo 20)
+     * @param desde Fecha inicial
+     * @param hasta Fecha final (rango máximo de 31 días)
+     * @param horaDesde Hora mínima de inicio (null = 07:00)
+     * @param horaHasta Hora máxima de fin (null = 22:00)
+     * @param limite Número máximo de franjas (por defecto 20, máximo 100)
+     * @return Lista de FranjaResponse disponibles ordenadas por inicio
+     * @throws BusinessException si los parámetros no son válidos
+     */
+    @Transactional(readOnly = true)
+    public List<FranjaResponse> buscarDisponibles(List<Long> servicioIds, LocalDate desde, LocalDate hasta,
+                                                  LocalTime horaDesde, LocalTime horaHasta, Integer limite) {
+        List<Long> servicios = servicioIds.stream().distinct().toList();
+        if (servicios.size() > BUSQUEDA_MAX_SERVICIOS) {
+            throw new BusinessException("Se pueden buscar como máximo " + BUSQUEDA_MAX_SERVICIOS + " servicios");
+        }
+
+        if (desde.isAfter(hasta)) {
+            throw new BusinessException("La fecha inicial debe ser anterior a la fecha final");
+        }
+
+        if (ChronoUnit.DAYS.between(desde, hasta) >= BUSQUEDA_MAX_DIAS) {
+            throw new BusinessException("El rango de búsqueda no puede superar " + BUSQUEDA_MAX_DIAS + " días");
+        }
+
+        LocalTime inicio = horaDesde != null ? horaDesde : HORA_APERTURA;
+        LocalTime fin = horaHasta != null ? horaHasta : HORA_CIERRE;
+        if (!inicio.isBefore(fin)) {
+            throw new BusinessException("La hora inicial debe ser anterior a la hora final");
+        }
+
+        int tamanio = limite == null
+                ? BUSQUEDA_LIMITE_DEFECTO
+                : Math.min(Math.max(limite, 1), BUSQUEDA_LIMITE_MAXIMO);
+
+        return franjaRepository.findDisponiblesByServicioIdsEntreFechas(
+                        servicios, desde, hasta, inicio, fin, PageRequest.of(0, tamanio)).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Obtiene el resumen de disponibilidad de un servicio para un mes.
+     * Un elemento por día con franjas (plazas libres y primera hora libre).
+     * Se sirve desde la caché de disponibilidad y se invalida con cada
+     * cambio de plazas de ese servicio y mes.
+     *
+     * @param servicioId ID del servicio
+     * @param mes Mes consultado
+     * @return Resumen por día ordenado por fecha
+     */
+    public List<CalendarioDiaResponse> getCalendario(Long servicioId, YearMonth mes) {
+        return disponibilidadCache.obtenerCalendario(servicioId, mes, () ->
+                franjaRepository.findCalendarioByServicioId(servicioId, mes.atDay(1), mes.atEndOfMonth()));
+    }
+
     /**
      * Obtiene todas las franjas de un servicio en una fecha.
      * Incluye franjas sin disponibilidad.
@@ -136,6 +216,8 @@ public class FranjaHorariaService {
         }
 
         FranjaHoraria savedFranja = franjaRepository.save(franja);
+        contadorPlazas.fijar(savedFranja.getId(), savedFranja.getPlazasDisponibles());
+        disponibilidadCache.invalidar(savedFranja);
         return mapToResponse(savedFranja);
     }
 
@@ -161,6 +243,8 @@ public class FranjaHorariaService {
         }
 
         franjaRepository.delete(franja);
+        contadorPlazas.eliminar(id);
+        disponibilidadCache.invalidar(franja);
         return ApiResponse.success("Franja horaria eliminada correctamente");
     }
 
@@ -215,6 +299,26 @@ public class FranjaHorariaService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Comprueba que las plazas de las franjas cuadran con sus reservas (solo ADMIN).
+     *
+     * Devuelve las franjas del rango en las que plazasTotales - plazasDisponibles
+     * no coincide con el número de reservas no canceladas. Una lista vacía
+     * confirma que no ha habido overbooking ni plazas perdidas.
+     *
+     * @param desde Fecha inicial
+     * @param hasta Fecha final
+     * @return Lista de franjas descuadradas (vacía si todo cuadra)
+     */
+    @Transactional(readOnly = true)
+    public List<DescuadrePlazasResponse> getDescuadresPlazas(LocalDate desde, LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            throw new BusinessException("La fecha inicial debe ser anterior a la fecha final");
+        }
+
+        return franjaRepository.findDescuadresPlazas(desde, hasta);
+    }
+
     /**
      * Actualiza una franja horaria existente (solo ADMIN).
      *
@@ -282,6 +386,9 @@ public class FranjaHorariaService {
             );
         }
 
+        // La disponibilidad cambia en el servicio y fecha anteriores y en los nuevos
+        disponibilidadCache.invalidar(franja);
+
         // Actualizar campos
         franja.setServicio(servicio);
         franja.setFecha(request.getFecha());
@@ -305,6 +412,8 @@ public class FranjaHorariaService {
         }
 
         FranjaHoraria updatedFranja = franjaRepository.save(franja);
+        contadorPlazas.fijar(id, updatedFranja.getPlazasDisponibles());
+        disponibilidadCache.invalidar(updatedFranja);
         return mapToResponse(updatedFranja);
     }
 
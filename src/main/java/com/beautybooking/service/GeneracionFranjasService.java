@@ -0,0 +1,245 @@
+package com.beautybooking.service;
+
+import com.beautybooking.dto.request.PlantillaFranjasRequest;
+import com.beautybooking.dto.response.GeneracionFranjasResponse;
+import com.beautybooking.exception.BusinessException;
+import com.beautybooking.exception.ResourceNotFoundException;
+import com.beautybooking.model.Servicio;
+import com.beautybooking.repository.FranjaHorariaRepository;
+import com.beautybooking.repository.ServicioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Servicio de generación de franjas en bloque a partir de plantillas semanales.
+ *
+ * Sustituye a crear franjas una a una (una búsqueda del servicio, una
+ * comprobación de duplicado y un INSERT por franja):
+ * - Las franjas existentes del rango se leen en una sola consulta y los
+ *   duplicados (uk_servicio_fecha_hora) se descartan en memoria
+ * - Los ids de las nuevas se reservan de una vez en secuencias_id, la misma
+ *   tabla que usa Hibernate, para que no coincidan con los que asigna JPA
+ * - Las nuevas se insertan con JDBC por lotes (en MySQL, con
+ *   rewriteBatchedStatements=true, cada lote es un INSERT multi-fila)
+ * - Las franjas existentes no se modifican
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GeneracionFranjasService {
+
+    // Horarios permitidos según reglas de negocio
+    private static final LocalTime HORA_APERTURA = LocalTime.of(7, 0);
+    private static final LocalTime HORA_CIERRE = LocalTime.of(22, 0);
+
+    // Límites de una generación
+    private static final int MAX_DIAS = 366;
+    private static final int MAX_FRANJAS = 200_000;
+
+    // Filas por lote de INSERT
+    private static final int TAMANIO_LOTE = 1000;
+
+    private static final String INSERT_FRANJA =
+            "INSERT INTO franjas_horarias " +
+                    "(id, servicio_id, fecha, hora_inicio, hora_fin, plazas_totales, plazas_disponibles, version) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    // Fila de franjas_horarias en secuencias_id (pkColumnValue del @TableGenerator)
+    private static final String SECUENCIA_FRANJAS = "franjas_horarias";
+
+    private final ServicioRepository servicioRepository;
+    private final FranjaHorariaRepository franjaRepository;
+    private final DisponibilidadCacheService disponibilidadCache;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Genera las franjas de un servicio a partir de una plantilla semanal.
+     *
+     * Para cada día del rango incluido en diasSemana y cada tramo, crea franjas
+     * de la duración del servicio cada intervaloMinutos, mientras terminen
+     * dentro del tramo. Las franjas que ya existen se omiten.
+     *
+     * @param plantilla Servicio, rango de fechas, días, tramos, intervalo y plazas
+     * @return Número de franjas creadas y de franjas que ya existían
+     * @throws ResourceNotFoundException si el servicio no existe
+     * @throws BusinessException si la plantilla no es válida
+     */
+    @Transactional
+    public GeneracionFranjasResponse generar(PlantillaFranjasRequest plantilla) {
+
+        Servicio servicio = servicioRepository.findById(plantilla.getServicioId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Servicio no encontrado con ID: " + plantilla.getServicioId()
+                ));
+
+        validarPlantilla(plantilla, servicio);
+
+        int duracion = servicio.getDuracionMinutos();
+        int intervalo = plantilla.getIntervaloMinutos() != null ? plantilla.getIntervaloMinutos() : duracion;
+        int plazas = plantilla.getPlazas() != null ? plantilla.getPlazas() : servicio.getAforoMaximo();
+
+        // 1. Franjas ya existentes del rango (una sola consulta)
+        Set<InicioFranja> existentes = new HashSet<>();
+        for (FranjaHorariaRepository.InicioFranja franja : franjaRepository.findIniciosByServicioIdEntreFechas(
+                servicio.getId(), plantilla.getDesde(), plantilla.getHasta())) {
+            existentes.add(new InicioFranja(franja.getFecha(), franja.getHoraInicio()));
+        }
+
+        // 2. Materializar la plantilla descartando duplicados en memoria
+        List<InicioFranja> nuevas = new ArrayList<>();
+        int repetidas = 0;
+
+        for (LocalDate fecha = plantilla.getDesde(); !fecha.isAfter(plantilla.getHasta()); fecha = fecha.plusDays(1)) {
+            if (!plantilla.getDiasSemana().contains(fecha.getDayOfWeek())) {
+                continue;
+            }
+
+            for (PlantillaFranjasRequest.TramoHorario tramo : plantilla.getTramos()) {
+                // En minutos desde medianoche para no dar la vuelta al día
+                int fin = tramo.getHoraFin().toSecondOfDay() / 60;
+                for (int inicio = tramo.getHoraInicio().toSecondOfDay() / 60;
+                     inicio + duracion <= fin; inicio += intervalo) {
+
+                    InicioFranja franja = new InicioFranja(fecha, LocalTime.of(inicio / 60, inicio % 60));
+
+                    // add() devuelve false si ya existía o la genera otro tramo solapado
+                    if (existentes.add(franja)) {
+                        nuevas.add(franja);
+                    } else {
+                        repetidas++;
+                    }
+                }
+            }
+
+            if (nuevas.size() > MAX_FRANJAS) {
+                throw new BusinessException(
+                        "La plantilla genera más de " + MAX_FRANJAS + " franjas. Reduce el rango de fechas"
+                );
+            }
+        }
+
+        // 3. Reservar los ids e insertar por lotes
+        long primerId = reservarIds(nuevas.size());
+        try {
+            jdbcTemplate.batchUpdate(INSERT_FRANJA, nuevas, TAMANIO_LOTE, new ParameterizedPreparedStatementSetter<>() {
+                private long siguienteId = primerId;
+
+                @Override
+                public void setValues(PreparedStatement ps, InicioFranja franja) throws SQLException {
+                    ps.setLong(1, siguienteId++);
+                    ps.setLong(2, servicio.getId());
+                    ps.setObject(3, franja.fecha());
+                    ps.setObject(4, franja.horaInicio());
+                    ps.setObject(5, franja.horaInicio().plusMinutes(duracion));
+                    ps.setInt(6, plazas);
+                    ps.setInt(7, plazas);
+                }
+            });
+        } catch (DuplicateKeyException e) {
+            // Otra operación ha creado alguna de estas franjas mientras se generaban
+            throw new BusinessException(
+                    "Se han creado franjas de este servicio durante la generación. Inténtalo de nuevo"
+            );
+        }
+
+        nuevas.stream()
+                .map(InicioFranja::fecha)
+                .distinct()
+                .forEach(fecha -> disponibilidadCache.invalidar(servicio.getId(), fecha));
+
+        log.info("Generadas {} franjas para el servicio {} ({} ya existían)",
+                nuevas.size(), servicio.getId(), repetidas);
+
+        return new GeneracionFranjasResponse(
+                servicio.getId(),
+                plantilla.getDesde(),
+                plantilla.getHasta(),
+                nuevas.size(),
+                repetidas
+        );
+    }
+
+    /**
+     * Reserva un bloque de ids consecutivos de franjas en secuencias_id.
+     *
+     * ultimo_valor es el último id ya reservado; los bloques que Hibernate
+     * tiene en memoria son anteriores. La fila queda bloqueada hasta el final
+     * de la transacción.
+     *
+     * @param cantidad Número de ids a reservar
+     * @return Primer id del bloque
+     */
+    private long reservarIds(int cantidad) {
+        Long ultimoId = jdbcTemplate.queryForObject(
+                "SELECT ultimo_valor FROM secuencias_id WHERE nombre = ? FOR UPDATE",
+                Long.class, SECUENCIA_FRANJAS);
+        jdbcTemplate.update(
+                "UPDATE secuencias_id SET ultimo_valor = ultimo_valor + ? WHERE nombre = ?",
+                cantidad, SECUENCIA_FRANJAS);
+        return ultimoId + 1;
+    }
+
+    /**
+     * Valida rango de fechas, tramos y plazas de la plantilla.
+     *
+     * @param plantilla Plantilla a validar
+     * @param servicio Servicio de las franjas
+     * @throws BusinessException si algún valor no es válido
+     */
+    private void validarPlantilla(PlantillaFranjasRequest plantilla, Servicio servicio) {
+        if (plantilla.getDesde().isAfter(plantilla.getHasta())) {
+            throw new BusinessException("La fecha inicial debe ser anterior a la fecha final");
+        }
+
+        if (ChronoUnit.DAYS.between(plantilla.getDesde(), plantilla.getHasta()) >= MAX_DIAS) {
+            throw new BusinessException("El rango de fechas no puede superar " + MAX_DIAS + " días");
+        }
+
+        for (PlantillaFranjasRequest.TramoHorario tramo : plantilla.getTramos()) {
+            if (!tramo.getHoraInicio().isBefore(tramo.getHoraFin())) {
+                throw new BusinessException(
+                        "La hora de inicio del tramo debe ser anterior a la de fin: " +
+                                tramo.getHoraInicio() + " - " + tramo.getHoraFin()
+                );
+            }
+
+            if (tramo.getHoraInicio().isBefore(HORA_APERTURA) || tramo.getHoraFin().isAfter(HORA_CIERRE)) {
+                throw new BusinessException(
+                        "Los tramos deben estar entre las 07:00 y las 22:00. " +
+                                "Tramo indicado: " + tramo.getHoraInicio() + " - " + tramo.getHoraFin()
+                );
+            }
+        }
+
+        if (plantilla.getPlazas() != null && plantilla.getPlazas() > servicio.getAforoMaximo()) {
+            throw new BusinessException(
+                    "Las plazas no pueden superar el aforo máximo del servicio (" + servicio.getAforoMaximo() + ")"
+            );
+        }
+    }
+
+    /**
+     * Clave de una franja dentro del servicio (uk_servicio_fecha_hora).
+     */
+    private record InicioFranja(LocalDate fecha, LocalTime horaInicio) {
+    }
+}
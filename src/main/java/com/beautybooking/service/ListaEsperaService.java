@@ -0,0 +1,276 @@
+package com.beautybooking.service;
+
+import com.beautybooking.dto.request.ReservaRequest;
+import com.beautybooking.dto.response.ApiResponse;
+import com.beautybooking.dto.response.ListaEsperaResponse;
+import com.beautybooking.exception.BusinessException;
+import com.beautybooking.exception.ResourceNotFoundException;
+import com.beautybooking.model.EntradaListaEspera;
+import com.beautybooking.model.FranjaHoraria;
+import com.beautybooking.model.Reserva;
+import com.beautybooking.model.Usuario;
+import com.beautybooking.model.enums.EstadoReserva;
+import com.beautybooking.model.enums.TipoEventoReserva;
+import com.beautybooking.repository.FranjaHorariaRepository;
+import com.beautybooking.repository.ListaEsperaRepository;
+import com.beautybooking.repository.ReservaRepository;
+import com.beautybooking.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Servicio de lista de espera de franjas completas.
+ *
+ * Responsabilidades:
+ * - Apuntar y borrar clientes de la lista de espera de una franja completa
+ * - Ceder la plaza liberada por una cancelación al primero de la cola, en la
+ *   misma transacción y con la franja bloqueada: la plaza nunca queda libre
+ *   entre medias y otro cliente no puede adelantarse
+ * - Eliminar por lotes las entradas de franjas pasadas
+ *
+ * La cola de cada franja es FIFO por id sobre idx_lista_espera_franja
+ * (franja_id, id): ceder una plaza lee solo la cabeza de la cola, por larga
+ * que sea. Los que ya no pueden recibir la plaza (tienen otra reserva que
+ * solapa) salen de la cola y se pasa al siguiente.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ListaEsperaService {
+
+    private final ListaEsperaRepository listaEsperaRepository;
+    private final FranjaHorariaRepository franjaRepository;
+    private final ReservaRepository reservaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final EventosReservaService eventos;
+    private final MetricasReservasService metricas;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Indica si la lista de espera está activa.
+     * Se inyecta desde application.properties (app.reservas.lista-espera.habilitada).
+     */
+    @Value("${app.reservas.lista-espera.habilitada:true}")
+    private boolean habilitada;
+
+    /**
+     * Entradas caducadas eliminadas por lote (y por transacción).
+     * Se inyecta desde application.properties (app.reservas.lista-espera.tamanio-lote).
+     */
+    @Value("${app.reservas.lista-espera.tamanio-lote:500}")
+    private int tamanioLote;
+
+    /**
+     * Lotes máximos por limpieza; el resto se elimina en la siguiente.
+     * Se inyecta desde application.properties (app.reservas.lista-espera.max-lotes).
+     */
+    @Value("${app.reservas.lista-espera.max-lotes:50}")
+    private int maxLotes;
+
+    /**
+     * Apunta al usuario en la lista de espera de una franja completa.
+     *
+     * La franja se bloquea para que el alta no se cruce con una cancelación:
+     * o la plaza se cede a esta entrada, o la franja sigue completa.
+     *
+     * @param usuarioEmail Email del usuario
+     * @param request Franja y notas para la futura reserva
+     * @return ListaEsperaResponse con la posición en la cola
+     * @throws ResourceNotFoundException si usuario o franja no existen
+     * @throws BusinessException si la franja tiene plazas, ya ha empezado
+     *         o el usuario ya tiene reserva o entrada en ella
+     */
+    @Transactional
+    public ListaEsperaResponse apuntar(String usuarioEmail, ReservaRequest request) {
+        if (!habilitada) {
+            throw new BusinessException("La lista de espera no está disponible");
+        }
+
+        Usuario usuario = usuarioRepository.findByEmail(usuarioEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado: " + usuarioEmail));
+
+        FranjaHoraria franja = metricas.medirEsperaBloqueo(() -> franjaRepository.findByIdWithLock(request.getFranjaId()))
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Franja horaria no encontrada con ID: " + request.getFranjaId()
+                ));
+
+        if (haEmpezado(franja)) {
+            throw new BusinessException("No se puede esperar plaza en una franja que ya ha empezado");
+        }
+
+        if (franja.tieneDisponibilidad()) {
+            throw new BusinessException("La franja tiene plazas disponibles: puedes reservarla directamente");
+        }
+
+        if (reservaRepository.existsByUsuarioIdAndFranjaId(usuario.getId(), franja.getId())) {
+            throw new BusinessException("Ya tienes una reserva activa para esta franja horaria");
+        }
+
+        if (listaEsperaRepository.existsByFranjaIdAndUsuarioId(franja.getId(), usuario.getId())) {
+            throw new BusinessException("Ya estás en la lista de espera de esta franja horaria");
+        }
+
+        EntradaListaEspera entrada = new EntradaListaEspera();
+        entrada.setFranja(franja);
+        entrada.setUsuario(usuario);
+        entrada.setNotas(request.getNotas());
+        EntradaListaEspera savedEntrada = listaEsperaRepository.save(entrada);
+
+        return listaEsperaRepository.findResponseById(savedEntrada.getId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Entrada de lista de espera no encontrada con ID: " + savedEntrada.getId()
+                ));
+    }
+
+    /**
+     * Obtiene las entradas del usuario en franjas de hoy en adelante.
+     *
+     * @param usuarioEmail Email del usuario
+     * @return Lista de ListaEsperaResponse con la posición en cada cola
+     */
+    @Transactional(readOnly = true)
+    public List<ListaEsperaResponse> getMiListaEspera(String usuarioEmail) {
+        Usuario usuario = usuarioRepository.findByEmail(usuarioEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado: " + usuarioEmail));
+
+        return listaEsperaRepository.findResponsesByUsuarioId(usuario.getId(), LocalDate.now());
+    }
+
+    /**
+     * Saca al usuario de una lista de espera.
+     *
+     * @param id ID de la entrada
+     * @param usuarioEmail Email del usuario
+     * @return ApiResponse confirmando la baja
+     * @throws ResourceNotFoundException si no existe
+     * @throws BusinessException si no pertenece al usuario
+     */
+    @Transactional
+    public ApiResponse salir(Long id, String usuarioEmail) {
+        EntradaListaEspera entrada = listaEsperaRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Entrada de lista de espera no encontrada con ID: " + id));
+
+        if (!entrada.getUsuario().getEmail().equals(usuarioEmail)) {
+            throw new BusinessException("No tienes permiso para borrar esta entrada de la lista de espera");
+        }
+
+        listaEsperaRepository.delete(entrada);
+
+        return ApiResponse.success("Has salido de la lista de espera");
+    }
+
+    /**
+     * Cede una plaza recién liberada de la franja al primero de su lista de espera.
+     *
+     * Se llama con la franja bloqueada y la plaza ya devuelta (incrementarPlazas).
+     * Si hay a quién cederla, crea su reserva PENDIENTE, vuelve a ocupar la plaza
+     * y lo saca de la cola; el llamador guarda la franja.
+     *
+     * @param franja Franja bloqueada con la plaza liberada
+     * @return true si la plaza se ha cedido (no queda libre)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean cederPlaza(FranjaHoraria franja) {
+        if (!habilitada || haEmpezado(franja)) {
+            return false;
+        }
+
+        List<EstadoReserva> estadosActivos = Arrays.asList(
+                EstadoReserva.PENDIENTE,
+                EstadoReserva.CONFIRMADA
+        );
+
+        while (franja.tieneDisponibilidad()) {
+            List<EntradaListaEspera> primeras = listaEsperaRepository.findPrimeras(franja.getId(), PageRequest.of(0, 1));
+            if (primeras.isEmpty()) {
+                return false;
+            }
+
+            EntradaListaEspera entrada = primeras.get(0);
+            listaEsperaRepository.delete(entrada);
+
+            // Quien tiene ya otra reserva a esa hora no puede recibir la plaza
+            if (reservaRepository.existsSolapamiento(entrada.getUsuario(), franja.getFecha(),
+                    franja.getHoraInicio(), franja.getHoraFin(), estadosActivos)) {
+                continue;
+            }
+
+            franja.decrementarPlazas();
+
+            Reserva reserva = new Reserva();
+            reserva.setUsuario(entrada.getUsuario());
+            reserva.setServicio(franja.getServicio());
+            reserva.setFranja(franja);
+            reserva.setFecha(franja.getFecha());
+            reserva.setHoraInicio(franja.getHoraInicio());
+            reserva.setHoraFin(franja.getHoraFin());
+            reserva.setEstado(EstadoReserva.PENDIENTE);
+            reserva.setPrecioFinal(franja.getServicio().getPrecio());
+            reserva.setNotas(entrada.getNotas());
+
+            Reserva savedReserva = reservaRepository.save(reserva);
+            eventos.registrar(TipoEventoReserva.CREADA, savedReserva);
+
+            meterRegistry.counter("reservas.lista_espera.cedidas").increment();
+            log.info("Plaza de la franja {} cedida a {} desde la lista de espera (reserva {})",
+                    franja.getId(), entrada.getUsuario().getEmail(), savedReserva.getId());
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Elimina por lotes las entradas de franjas de días anteriores a hoy
+     * según app.reservas.lista-espera.cron-limpieza (por defecto, cada noche).
+     */
+    @Scheduled(cron = "${app.reservas.lista-espera.cron-limpieza:0 50 3 * * *}", zone = "Europe/Madrid")
+    public void limpiarCaducadas() {
+        LocalDate hoy = LocalDate.now();
+        int total = 0;
+
+        for (int lotes = 0; lotes < maxLotes; lotes++) {
+            Integer eliminadas = transactionTemplate.execute(status -> {
+                List<Long> ids = listaEsperaRepository.findIdsCaducadas(hoy, PageRequest.of(0, tamanioLote));
+                return ids.isEmpty() ? 0 : listaEsperaRepository.deleteByIdIn(ids);
+            });
+
+            if (eliminadas == null || eliminadas == 0) {
+                break;
+            }
+            total += eliminadas;
+        }
+
+        if (total > 0) {
+            log.info("Eliminadas {} entradas de lista de espera de franjas anteriores a {}", total, hoy);
+        }
+    }
+
+    /**
+     * Indica si la franja ya ha empezado.
+     *
+     * @param franja Franja horaria
+     * @return true si su inicio es anterior al instante actual
+     */
+    private boolean haEmpezado(FranjaHoraria franja) {
+        return LocalDateTime.of(franja.getFecha(), franja.getHoraInicio()).isBefore(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,68 @@
+package com.beautybooking.service;
+
+import com.beautybooking.model.enums.MotivoRechazoReserva;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Métricas de negocio de las reservas (Micrometer).
+ *
+ * Registra:
+ * - reservas.bloqueo.espera: tiempo esperando el bloqueo de la franja
+ *   (SELECT ... FOR UPDATE), con histograma para percentiles en Prometheus
+ * - reservas.rechazos: reservas rechazadas, etiquetadas por motivo
+ *
+ * Los tiempos de cada método de ReservaService y FranjaHorariaService se
+ * registran aparte con @Timed.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class MetricasReservasService {
+
+    private final Timer esperaBloqueo;
+    private final Map<MotivoRechazoReserva, Counter> rechazos = new EnumMap<>(MotivoRechazoReserva.class);
+
+    public MetricasReservasService(MeterRegistry meterRegistry) {
+        this.esperaBloqueo = Timer.builder("reservas.bloqueo.espera")
+                .description("Tiempo esperando el bloqueo pesimista de la franja")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+
+        for (MotivoRechazoReserva motivo : MotivoRechazoReserva.values()) {
+            rechazos.put(motivo, Counter.builder("reservas.rechazos")
+                    .description("Reservas rechazadas por motivo")
+                    .tag("motivo", motivo.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Ejecuta la consulta con bloqueo y registra cuánto ha tardado en obtenerlo.
+     *
+     * @param consulta Consulta SELECT ... FOR UPDATE
+     * @return Resultado de la consulta
+     */
+    public <T> T medirEsperaBloqueo(Supplier<T> consulta) {
+        return esperaBloqueo.record(consulta);
+    }
+
+    /**
+     * Cuenta una reserva rechazada.
+     *
+     * @param motivo Motivo del rechazo
+     */
+    public void registrarRechazo(MotivoRechazoReserva motivo) {
+        rechazos.get(motivo).increment();
+    }
+}
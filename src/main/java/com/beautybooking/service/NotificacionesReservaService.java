@@ -0,0 +1,427 @@
+package com.beautybooking.service;
+
+import com.beautybooking.model.EventoReserva;
+import com.beautybooking.model.Reserva;
+import com.beautybooking.model.enums.TipoNotificacionReserva;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.retry.backoff.BackOffInterruptedException;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servicio de notificaciones por email de las reservas.
+ *
+ * El envío no forma parte de la reserva: la latencia o la caída del servidor
+ * SMTP no afectan a createReserva ni al resto de operaciones.
+ * - Las notificaciones salen de los eventos de reservas (outbox) que publica
+ *   RelayEventosReservaService: cada evento se encola o, con la cola llena,
+ *   se queda pendiente en la tabla y se publica en la siguiente pasada
+ * - Los recordatorios se encolan al confirmarse la transacción de su lote;
+ *   si entretanto la cola se ha llenado, se descartan y se cuentan
+ * - Un único hilo emisor vacía la cola por lotes y envía cada lote en una
+ *   sola conexión SMTP
+ * - Los fallos se reintentan con espera exponencial; tras un envío parcial
+ *   solo se reintentan los mensajes fallidos
+ *
+ * Garantía de entrega: el evento se da por publicado cuando su email entra
+ * en la cola, no cuando se envía. Al detener la aplicación se espera a que
+ * la cola se vacíe (hasta 5 segundos); lo que quede en ella se pierde, y un
+ * email que agota sus reintentos no se vuelve a intentar. Para el email la
+ * entrega es, por tanto, como máximo una vez; si la transacción del relay se
+ * deshace después de encolar, el evento se vuelve a publicar y el email
+ * puede llegar dos veces.
+ *
+ * Se activa con app.notificaciones.habilitadas=true.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificacionesReservaService {
+
+    private static final DateTimeFormatter FORMATO_FECHA =
+            DateTimeFormatter.ofPattern("EEEE d 'de' MMMM 'de' yyyy", Locale.of("es", "ES"));
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm");
+    private static final Duration ESPERA_VACIADO = Duration.ofSeconds(5);
+
+    private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Indica si se envían notificaciones.
+     * Se inyecta desde application.properties (app.notificaciones.habilitadas).
+     */
+    @Value("${app.notificaciones.habilitadas:false}")
+    private boolean habilitadas;
+
+    /**
+     * Dirección del remitente.
+     * Se inyecta desde application.properties (app.notificaciones.remitente).
+     */
+    @Value("${app.notificaciones.remitente:no-reply@beautybooking.com}")
+    private String remitente;
+
+    /**
+     * Notificaciones que pueden esperar en la cola.
+     * Se inyecta desde application.properties (app.notificaciones.capacidad-cola).
+     */
+    @Value("${app.notificaciones.capacidad-cola:1000}")
+    private int capacidadCola;
+
+    /**
+     * Mensajes enviados como máximo en cada conexión SMTP.
+     * Se inyecta desde application.properties (app.notificaciones.tamanio-lote).
+     */
+    @Value("${app.notificaciones.tamanio-lote:20}")
+    private int tamanioLote;
+
+    /**
+     * Intentos de envío de cada lote.
+     * Se inyecta desde application.properties (app.notificaciones.max-intentos).
+     */
+    @Value("${app.notificaciones.max-intentos:4}")
+    private int maxIntentos;
+
+    /**
+     * Espera inicial y máxima entre intentos (ms); se duplica en cada intento.
+     * Se inyectan desde application.properties (app.notificaciones.espera-ms y espera-max-ms).
+     */
+    @Value("${app.notificaciones.espera-ms:1000}")
+    private long esperaMs;
+
+    @Value("${app.notificaciones.espera-max-ms:30000}")
+    private long esperaMaxMs;
+
+    private BlockingQueue<Notificacion> cola;
+    private RetryTemplate reintentos;
+    private Thread emisor;
+
+    private Counter enviadas;
+    private Counter fallidas;
+    private Counter descartadas;
+
+    /**
+     * Crea la cola y arranca el hilo emisor si las notificaciones están activas.
+     */
+    @PostConstruct
+    public void iniciar() {
+        if (!habilitadas) {
+            return;
+        }
+
+        cola = new ArrayBlockingQueue<>(capacidadCola);
+        reintentos = RetryTemplate.builder()
+                .maxAttempts(maxIntentos)
+                .exponentialBackoff(esperaMs, 2, esperaMaxMs)
+                .retryOn(MailSendException.class)
+                .build();
+
+        Gauge.builder("notificaciones.cola", cola, BlockingQueue::size)
+                .description("Notificaciones pendientes de enviar")
+                .register(meterRegistry);
+        enviadas = contador("enviada", "Notificaciones enviadas");
+        fallidas = contador("fallida", "Notificaciones no enviadas tras agotar los reintentos");
+        descartadas = contador("descartada", "Notificaciones descartadas con la cola llena");
+
+        emisor = new Thread(this::emitir, "notificaciones-emisor");
+        emisor.setDaemon(true);
+        emisor.start();
+
+        log.info("Notificaciones por email activas: cola de {}, lotes de {}, {} intentos",
+                capacidadCola, tamanioLote, maxIntentos);
+    }
+
+    /**
+     * Detiene el hilo emisor al cerrar la aplicación, tras esperar a que
+     * vacíe la cola (como mucho ESPERA_VACIADO).
+     */
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        if (emisor != null) {
+            long limite = System.nanoTime() + ESPERA_VACIADO.toNanos();
+            while (!cola.isEmpty() && System.nanoTime() < limite) {
+                Thread.sleep(100);
+            }
+            if (!cola.isEmpty()) {
+                log.warn("Se detiene la aplicación con {} notificaciones sin enviar", cola.size());
+            }
+
+            emisor.interrupt();
+            emisor.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * Encola ya la notificación de un evento, sin esperar a que termine la
+     * transacción. Si la cola está llena no descarta nada: el relay deja el
+     * evento pendiente y lo vuelve a publicar en la siguiente pasada.
+     *
+     * Los datos del email se copian del evento en este momento, dentro de
+     * la transacción; el hilo emisor no accede a la base de datos.
+     *
+     * @param tipo Cambio de la reserva
+     * @param evento Evento de la reserva (con los datos tras el cambio)
+     * @return true si se ha encolado (o las notificaciones están desactivadas);
+     *         false si la cola está llena
+     */
+    public boolean encolar(TipoNotificacionReserva tipo, EventoReserva evento) {
+        if (!habilitadas) {
+            return true;
+        }
+
+        return cola.offer(new Notificacion(
+                tipo,
+                evento.getReservaId(),
+                evento.getUsuario().getEmail(),
+                evento.getUsuario().getNombre(),
+                evento.getServicio().getNombre(),
+                evento.getFecha(),
+                evento.getHoraInicio(),
+                evento.getHoraFin()
+        ));
+    }
+
+    /**
+     * Notifica sobre una reserva cuando la transacción actual se confirma.
+     * Se usa para los recordatorios, que no son cambios de la reserva.
+     *
+     * @param tipo Tipo de notificación
+     * @param reserva Reserva (con usuario y servicio cargados)
+     */
+    public void notificar(TipoNotificacionReserva tipo, Reserva reserva) {
+        if (!habilitadas) {
+            return;
+        }
+
+        registrar(new Notificacion(
+                tipo,
+                reserva.getId(),
+                reserva.getUsuario().getEmail(),
+                reserva.getUsuario().getNombre(),
+                reserva.getServicio().getNombre(),
+                reserva.getFecha(),
+                reserva.getHoraInicio(),
+                reserva.getHoraFin()
+        ));
+    }
+
+    /**
+     * Indica si se envían notificaciones (app.notificaciones.habilitadas).
+     *
+     * @return true si las notificaciones están activas
+     */
+    public boolean isHabilitadas() {
+        return habilitadas;
+    }
+
+    /**
+     * Huecos libres en la cola. Permite a los procesos por lotes (recordatorios)
+     * no generar más notificaciones de las que se pueden encolar.
+     *
+     * @return Notificaciones que caben en la cola (0 si están desactivadas)
+     */
+    public int getCapacidadLibre() {
+        return habilitadas ? cola.remainingCapacity() : 0;
+    }
+
+    /**
+     * Encola la notificación cuando la transacción actual se confirma,
+     * o inmediatamente si no hay transacción activa.
+     *
+     * @param notificacion Notificación a enviar
+     */
+    private void registrar(Notificacion notificacion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            encolar(notificacion);
+            return;
+        }
+
+        Pendientes pendientes = (Pendientes) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            pendientes = new Pendientes();
+            TransactionSynchronizationManager.bindResource(this, pendientes);
+            TransactionSynchronizationManager.registerSynchronization(pendientes);
+        }
+        pendientes.notificaciones.add(notificacion);
+    }
+
+    /**
+     * Añade la notificación a la cola sin esperar; si está llena, la descarta.
+     *
+     * @param notificacion Notificación a enviar
+     */
+    private void encolar(Notificacion notificacion) {
+        if (!cola.offer(notificacion)) {
+            descartadas.increment();
+            log.warn("Cola de notificaciones llena: descartada la notificación {} de la reserva {}",
+                    notificacion.tipo(), notificacion.reservaId());
+        }
+    }
+
+    /**
+     * Bucle del hilo emisor: espera una notificación, recoge las que haya en
+     * la cola hasta completar un lote y lo envía.
+     */
+    private void emitir() {
+        List<Notificacion> lote = new ArrayList<>(tamanioLote);
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                lote.add(cola.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            cola.drainTo(lote, tamanioLote - 1);
+            enviar(lote);
+            lote.clear();
+        }
+    }
+
+    /**
+     * Envía un lote con reintentos. Solo se reintentan los mensajes fallidos.
+     *
+     * @param lote Notificaciones a enviar
+     */
+    private void enviar(List<Notificacion> lote) {
+        List<MimeMessage> pendientes = new ArrayList<>(lote.size());
+        for (Notificacion notificacion : lote) {
+            try {
+                pendientes.add(mensaje(notificacion));
+            } catch (MessagingException | MailException e) {
+                fallidas.increment();
+                log.error("No se ha podido preparar la notificación {} de la reserva {}",
+                        notificacion.tipo(), notificacion.reservaId(), e);
+            }
+        }
+
+        try {
+            reintentos.execute(contexto -> {
+                if (contexto.getRetryCount() > 0) {
+                    log.warn("Reintento {} del envío de {} notificaciones",
+                            contexto.getRetryCount(), pendientes.size());
+                }
+                enviarPendientes(pendientes);
+                return null;
+            });
+        } catch (BackOffInterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            fallidas.increment(pendientes.size());
+            log.error("No se han podido enviar {} notificaciones", pendientes.size(), e);
+        }
+    }
+
+    /**
+     * Envía los mensajes pendientes en una sola conexión SMTP y quita de la
+     * lista los enviados, también si el envío es parcial.
+     *
+     * @param pendientes Mensajes pendientes (se modifica)
+     * @throws MailSendException si algún mensaje no se ha enviado
+     */
+    private void enviarPendientes(List<MimeMessage> pendientes) {
+        try {
+            mailSender.send(pendientes.toArray(MimeMessage[]::new));
+            enviadas.increment(pendientes.size());
+            pendientes.clear();
+        } catch (MailSendException e) {
+            if (!e.getFailedMessages().isEmpty()) {
+                int antes = pendientes.size();
+                pendientes.retainAll(e.getFailedMessages().keySet());
+                enviadas.increment(antes - pendientes.size());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Construye el email de una notificación.
+     *
+     * @param notificacion Notificación a enviar
+     * @return Mensaje listo para enviar
+     * @throws MessagingException si algún dato no es válido (por ejemplo, la dirección)
+     */
+    private MimeMessage mensaje(Notificacion notificacion) throws MessagingException {
+        MimeMessage mensaje = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mensaje, StandardCharsets.UTF_8.name());
+
+        helper.setFrom(remitente);
+        helper.setTo(notificacion.email());
+        helper.setSubject("BeautyBooking - " + notificacion.tipo().getAsunto());
+        helper.setText(
+                "Hola " + notificacion.nombre() + ",\n\n" +
+                        notificacion.tipo().getAsunto() + ":\n\n" +
+                        "  Servicio: " + notificacion.servicio() + "\n" +
+                        "  Fecha: " + FORMATO_FECHA.format(notificacion.fecha()) + "\n" +
+                        "  Hora: " + FORMATO_HORA.format(notificacion.horaInicio()) +
+                        " - " + FORMATO_HORA.format(notificacion.horaFin()) + "\n" +
+                        "  Reserva: #" + notificacion.reservaId() + "\n\n" +
+                        "Gracias por confiar en BeautyBooking."
+        );
+
+        return mensaje;
+    }
+
+    private Counter contador(String resultado, String descripcion) {
+        return Counter.builder("notificaciones.emails")
+                .description(descripcion)
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Datos de un email de reserva, copiados al notificar.
+     */
+    private record Notificacion(TipoNotificacionReserva tipo, Long reservaId, String email, String nombre,
+                                String servicio, LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+    }
+
+    /**
+     * Notificaciones pendientes de que termine la transacción.
+     * Solo se encolan si la transacción se confirma.
+     */
+    private final class Pendientes implements TransactionSynchronization {
+
+        private final List<Notificacion> notificaciones = new ArrayList<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(NotificacionesReservaService.this);
+
+            if (status == STATUS_COMMITTED) {
+                notificaciones.forEach(NotificacionesReservaService.this::encolar);
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.beautybooking.service;
+
+import com.beautybooking.repository.FranjaHorariaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Servicio de purga de franjas pasadas.
+ *
+ * Elimina periódicamente las franjas anteriores al periodo de retención que
+ * nunca se han reservado, para que franjas_horarias no crezca sin límite:
+ * - Por lotes de tamaño fijo: una consulta de IDs sobre idx_franjas_fecha y
+ *   un DELETE por lote, sin cargar las entidades
+ * - Cada lote en su propia transacción corta, para no mantener bloqueos
+ *   sobre la tabla durante toda la purga
+ * - Con una pausa entre lotes y un máximo de lotes por ejecución, para no
+ *   competir con las reservas
+ *
+ * Las franjas con reservas (también canceladas o ya archivadas en
+ * reservas_historico) se conservan como histórico.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PurgaFranjasService {
+
+    private final FranjaHorariaRepository franjaRepository;
+    private final ContadorPlazasService contadorPlazas;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Indica si la purga programada está activa.
+     * Se inyecta desde application.properties (app.franjas.purga.habilitada).
+     */
+    @Value("${app.franjas.purga.habilitada:true}")
+    private boolean habilitada;
+
+    /**
+     * Días de franjas pasadas que se conservan.
+     * Se inyecta desde application.properties (app.franjas.purga.dias-retencion).
+     */
+    @Value("${app.franjas.purga.dias-retencion:30}")
+    private int diasRetencion;
+
+    /**
+     * Franjas eliminadas por lote (y por transacción).
+     * Se inyecta desde application.properties (app.franjas.purga.tamanio-lote).
+     */
+    @Value("${app.franjas.purga.tamanio-lote:500}")
+    private int tamanioLote;
+
+    /**
+     * Pausa entre lotes (ms).
+     * Se inyecta desde application.properties (app.franjas.purga.pausa-ms).
+     */
+    @Value("${app.franjas.purga.pausa-ms:200}")
+    private long pausaMs;
+
+    /**
+     * Lotes máximos por ejecución; el resto se elimina en la siguiente.
+     * Se inyecta desde application.properties (app.franjas.purga.max-lotes).
+     */
+    @Value("${app.franjas.purga.max-lotes:200}")
+    private int maxLotes;
+
+    /**
+     * Ejecuta la purga según app.franjas.purga.cron (por defecto, cada noche).
+     */
+    @Scheduled(cron = "${app.franjas.purga.cron:0 30 3 * * *}", zone = "Europe/Madrid")
+    public void purgarProgramada() {
+        if (!habilitada) {
+            return;
+        }
+
+        purgar(LocalDate.now().minusDays(diasRetencion));
+    }
+
+    /**
+     * Elimina por lotes las franjas sin reservas anteriores a una fecha.
+     *
+     * @param fechaLimite Fecha límite (se eliminan las franjas anteriores)
+     * @return Número de franjas eliminadas
+     */
+    public int purgar(LocalDate fechaLimite) {
+        Counter eliminadas = Counter.builder("franjas.purga.eliminadas")
+                .description("Franjas pasadas eliminadas por la purga")
+                .register(meterRegistry);
+
+        long inicio = System.currentTimeMillis();
+        int total = 0;
+        int lotes = 0;
+
+        while (lotes < maxLotes) {
+            Integer eliminadasLote = transactionTemplate.execute(status -> purgarLote(fechaLimite));
+            lotes++;
+
+            if (eliminadasLote == null || eliminadasLote == 0) {
+                break;
+            }
+
+            total += eliminadasLote;
+            eliminadas.increment(eliminadasLote);
+
+            if (eliminadasLote < tamanioLote || !pausar()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Purga de franjas anteriores a {}: {} eliminadas en {} lotes ({} ms)",
+                    fechaLimite, total, lotes, System.currentTimeMillis() - inicio);
+        }
+
+        return total;
+    }
+
+    /**
+     * Elimina un lote de franjas dentro de la transacción actual.
+     *
+     * @param fechaLimite Fecha límite
+     * @return Franjas eliminadas en el lote
+     */
+    private int purgarLote(LocalDate fechaLimite) {
+        List<Long> ids = franjaRepository.findIdsSinReservasAnterioresA(
+                fechaLimite, PageRequest.of(0, tamanioLote));
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        int eliminadas = franjaRepository.deleteSinReservasByIdIn(ids);
+        ids.forEach(contadorPlazas::eliminar);
+        return eliminadas;
+    }
+
+    /**
+     * Espera pausaMs entre lotes.
+     *
+     * @return false si el hilo se ha interrumpido (la purga se detiene)
+     */
+    private boolean pausar() {
+        try {
+            Thread.sleep(pausaMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.beautybooking.service;
+
+import com.beautybooking.model.Reserva;
+import com.beautybooking.model.enums.TipoNotificacionReserva;
+import com.beautybooking.repository.ReservaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Servicio de recordatorios de citas.
+ *
+ * Cada app.reservas.recordatorios.intervalo-ms busca las reservas CONFIRMADAS
+ * que empiezan en las próximas antelacion-horas y aún no tienen recordatorio:
+ * - Recorre la ventana por rango sobre idx_reservas_fecha_hora, en orden
+ *   cronológico (las citas más próximas primero) y por lotes
+ * - Cada lote, en una transacción: bloquea sus reservas, las marca con
+ *   recordatorio_enviado_en y encola los emails al confirmar. Un reinicio o
+ *   una segunda instancia no vuelven a recordar una reserva ya marcada
+ * - El lote se limita a los huecos libres de la cola de notificaciones;
+ *   lo que no cabe se recuerda en la siguiente pasada
+ *
+ * Si la reserva cambia de franja, el recordatorio se vuelve a enviar.
+ * Solo se ejecuta con las notificaciones activas (app.notificaciones.habilitadas).
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecordatoriosReservaService {
+
+    private final ReservaRepository reservaRepository;
+    private final NotificacionesReservaService notificaciones;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Indica si se envían recordatorios.
+     * Se inyecta desde application.properties (app.reservas.recordatorios.habilitado).
+     */
+    @Value("${app.reservas.recordatorios.habilitado:true}")
+    private boolean habilitado;
+
+    /**
+     * Horas de antelación: se recuerdan las citas que empiezan en este plazo.
+     * Se inyecta desde application.properties (app.reservas.recordatorios.antelacion-horas).
+     */
+    @Value("${app.reservas.recordatorios.antelacion-horas:24}")
+    private int antelacionHoras;
+
+    /**
+     * Reservas recordadas por lote (y por transacción).
+     * Se inyecta desde application.properties (app.reservas.recordatorios.tamanio-lote).
+     */
+    @Value("${app.reservas.recordatorios.tamanio-lote:200}")
+    private int tamanioLote;
+
+    /**
+     * Lotes máximos por pasada.
+     * Se inyecta desde application.properties (app.reservas.recordatorios.max-lotes).
+     */
+    @Value("${app.reservas.recordatorios.max-lotes:50}")
+    private int maxLotes;
+
+    /**
+     * Envía los recordatorios pendientes de la ventana actual.
+     */
+    @Scheduled(fixedDelayString = "${app.reservas.recordatorios.intervalo-ms:300000}",
+            initialDelayString = "${app.reservas.recordatorios.intervalo-ms:300000}")
+    public void recordarProgramado() {
+        if (!habilitado || !notificaciones.isHabilitadas()) {
+            return;
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        recordar(ahora, ahora.plusHours(antelacionHoras));
+    }
+
+    /**
+     * Recuerda por lotes las citas confirmadas que empiezan entre desde y hasta.
+     *
+     * @param desde Inicio de la ventana
+     * @param hasta Fin de la ventana
+     * @return Número de recordatorios encolados
+     */
+    public int recordar(LocalDateTime desde, LocalDateTime hasta) {
+        Counter enviados = Counter.builder("reservas.recordatorios.enviados")
+                .description("Recordatorios de citas encolados para enviar")
+                .register(meterRegistry);
+
+        int total = 0;
+        for (int lotes = 0; lotes < maxLotes; lotes++) {
+            int tamanio = Math.min(tamanioLote, notificaciones.getCapacidadLibre());
+            if (tamanio == 0) {
+                log.warn("Cola de notificaciones llena: recordatorios aplazados a la siguiente pasada");
+                break;
+            }
+
+            Integer recordados = transactionTemplate.execute(status -> recordarLote(desde, hasta, tamanio));
+            if (recordados == null || recordados == 0) {
+                break;
+            }
+
+            total += recordados;
+            enviados.increment(recordados);
+
+            if (recordados < tamanio) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Recordatorios de citas entre {} y {}: {} encolados", desde, hasta, total);
+        }
+
+        return total;
+    }
+
+    /**
+     * Marca y notifica un lote de reservas dentro de la transacción actual.
+     *
+     * @param desde Inicio de la ventana
+     * @param hasta Fin de la ventana
+     * @param tamanio Tamaño del lote
+     * @return Reservas recordadas en el lote
+     */
+    private int recordarLote(LocalDateTime desde, LocalDateTime hasta, int tamanio) {
+        List<Reserva> reservas = reservaRepository.findSinRecordatorioEntre(
+                desde.toLocalDate(), desde.toLocalTime(),
+                hasta.toLocalDate(), hasta.toLocalTime(),
+                PageRequest.of(0, tamanio));
+
+        if (reservas.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = reservas.stream().map(Reserva::getId).toList();
+
+        // Inicializa usuario y servicio de las reservas bloqueadas en una sola consulta
+        reservaRepository.findConUsuarioYServicioByIdIn(ids);
+
+        reservaRepository.marcarRecordatorioEnviado(ids, Instant.now());
+        reservas.forEach(reserva -> notificaciones.notificar(TipoNotificacionReserva.RECORDATORIO, reserva));
+
+        return reservas.size();
+    }
+}
@@ -0,0 +1,198 @@
+package com.beautybooking.service;
+
+import com.beautybooking.model.EventoReserva;
+import com.beautybooking.model.enums.TipoNotificacionReserva;
+import com.beautybooking.repository.EventoReservaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Servicio de publicación de eventos de reservas (relay del outbox).
+ *
+ * Recorre periódicamente los eventos pendientes de eventos_reserva en orden
+ * de id y los entrega a sus consumidores fuera de las peticiones:
+ * - Por lotes, cada uno en su propia transacción: los eventos del lote se
+ *   bloquean, se publican y se marcan como procesados con un único UPDATE
+ * - Solo se marcan los eventos entregados: si la cola de notificaciones se
+ *   llena, el lote se corta ahí y el resto sigue pendiente para la siguiente
+ *   pasada, sin perder el orden
+ * - Si la publicación falla, la transacción se deshace y el lote se
+ *   reintenta en la siguiente pasada (entrega al menos una vez a los consumidores)
+ * - Los eventos procesados se eliminan por lotes tras app.reservas.eventos.dias-retencion
+ *
+ * Consumidores: notificaciones por email y métricas por tipo de evento y
+ * retraso de publicación. Para el email, "entregado" es "encolado": lo que
+ * ocurre después (reintentos, parada de la aplicación) lo describe
+ * NotificacionesReservaService, y allí la entrega es como máximo una vez.
+ *
+ * El orden es el de id: un evento cuya transacción se confirma después que
+ * la de otro posterior se publica en la pasada siguiente.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RelayEventosReservaService {
+
+    private final EventoReservaRepository eventoRepository;
+    private final NotificacionesReservaService notificaciones;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Indica si se publican los eventos.
+     * Se inyecta desde application.properties (app.reservas.eventos.habilitado).
+     */
+    @Value("${app.reservas.eventos.habilitado:true}")
+    private boolean habilitado;
+
+    /**
+     * Eventos publicados por lote (y por transacción).
+     * Se inyecta desde application.properties (app.reservas.eventos.tamanio-lote).
+     */
+    @Value("${app.reservas.eventos.tamanio-lote:100}")
+    private int tamanioLote;
+
+    /**
+     * Lotes máximos por pasada; el resto se publica en la siguiente.
+     * Se inyecta desde application.properties (app.reservas.eventos.max-lotes).
+     */
+    @Value("${app.reservas.eventos.max-lotes:50}")
+    private int maxLotes;
+
+    /**
+     * Días que se conservan los eventos ya publicados.
+     * Se inyecta desde application.properties (app.reservas.eventos.dias-retencion).
+     */
+    @Value("${app.reservas.eventos.dias-retencion:7}")
+    private int diasRetencion;
+
+    /**
+     * Publica los eventos pendientes cada app.reservas.eventos.intervalo-ms
+     * (desde el final de la pasada anterior).
+     */
+    @Scheduled(fixedDelayString = "${app.reservas.eventos.intervalo-ms:1000}")
+    public void publicarPendientes() {
+        if (!habilitado) {
+            return;
+        }
+
+        for (int lotes = 0; lotes < maxLotes; lotes++) {
+            Integer publicados;
+            try {
+                publicados = transactionTemplate.execute(status -> publicarLote());
+            } catch (RuntimeException e) {
+                log.error("Error publicando eventos de reservas; el lote se reintentará", e);
+                return;
+            }
+
+            if (publicados == null || publicados < tamanioLote) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Elimina por lotes los eventos publicados hace más de diasRetencion días
+     * según app.reservas.eventos.cron-limpieza (por defecto, cada noche).
+     */
+    @Scheduled(cron = "${app.reservas.eventos.cron-limpieza:0 45 3 * * *}", zone = "Europe/Madrid")
+    public void limpiarProcesados() {
+        Instant antesDe = Instant.now().minus(diasRetencion, ChronoUnit.DAYS);
+        int total = 0;
+
+        for (int lotes = 0; lotes < maxLotes; lotes++) {
+            Integer eliminados = transactionTemplate.execute(status -> {
+                List<Long> ids = eventoRepository.findIdsProcesadosAntesDe(antesDe, PageRequest.of(0, tamanioLote));
+                return ids.isEmpty() ? 0 : eventoRepository.deleteByIdIn(ids);
+            });
+
+            if (eliminados == null || eliminados == 0) {
+                break;
+            }
+            total += eliminados;
+        }
+
+        if (total > 0) {
+            log.info("Eliminados {} eventos de reservas publicados antes de {}", total, antesDe);
+        }
+    }
+
+    /**
+     * Publica un lote de eventos pendientes dentro de la transacción actual.
+     * Se detiene en el primer evento que no se puede entregar y marca como
+     * procesados solo los anteriores.
+     *
+     * @return Eventos publicados en el lote
+     */
+    private int publicarLote() {
+        List<EventoReserva> eventos = eventoRepository.findPendientes(PageRequest.of(0, tamanioLote));
+        if (eventos.isEmpty()) {
+            return 0;
+        }
+
+        Instant ahora = Instant.now();
+        int publicados = 0;
+        for (EventoReserva evento : eventos) {
+            if (!publicar(evento, ahora)) {
+                log.warn("Cola de notificaciones llena: {} eventos de reservas aplazados a la siguiente pasada",
+                        eventos.size() - publicados);
+                break;
+            }
+            publicados++;
+        }
+
+        if (publicados > 0) {
+            eventoRepository.marcarProcesados(
+                    eventos.subList(0, publicados).stream().map(EventoReserva::getId).toList(), ahora);
+        }
+        return publicados;
+    }
+
+    /**
+     * Entrega un evento a sus consumidores.
+     *
+     * @param evento Evento pendiente
+     * @param ahora Instante de publicación
+     * @return false si la notificación no cabe en la cola (el evento sigue pendiente)
+     */
+    private boolean publicar(EventoReserva evento, Instant ahora) {
+        TipoNotificacionReserva notificacion = switch (evento.getTipo()) {
+            case CREADA -> TipoNotificacionReserva.CREADA;
+            case CONFIRMADA -> TipoNotificacionReserva.CONFIRMADA;
+            case CANCELADA -> TipoNotificacionReserva.CANCELADA;
+            case MODIFICADA -> TipoNotificacionReserva.MODIFICADA;
+            case COMPLETADA -> null;
+        };
+        if (notificacion != null && !notificaciones.encolar(notificacion, evento)) {
+            return false;
+        }
+
+        Counter.builder("reservas.eventos.publicados")
+                .description("Eventos de reservas publicados por tipo")
+                .tag("tipo", evento.getTipo().name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+        Timer.builder("reservas.eventos.retraso")
+                .description("Tiempo entre el cambio de la reserva y la publicación del evento")
+                .register(meterRegistry)
+                .record(Duration.between(evento.getCreadoEn(), ahora));
+        return true;
+    }
+}
@@ -2,26 +2,50 @@ package com.beautybooking.service;
 
 import com.beautybooking.dto.request.ReservaRequest;
 import com.beautybooking.dto.response.ApiResponse;
+import com.beautybooking.dto.response.PaginaResponse;
 import com.beautybooking.dto.response.ReservaResponse;
+import com.beautybooking.dto.response.RetencionPlazaResponse;
 import com.beautybooking.exception.BusinessException;
 import com.beautybooking.exception.ResourceNotFoundException;
 import com.beautybooking.model.FranjaHoraria;
 import com.beautybooking.model.Reserva;
+import com.beautybooking.model.RetencionPlaza;
 import com.beautybooking.model.Usuario;
 import com.beautybooking.model.enums.EstadoReserva;
+import com.beautybooking.model.enums.EstrategiaPlazas;
+import com.beautybooking.model.enums.MotivoRechazoReserva;
 import com.beautybooking.model.enums.RolUsuario;
+import com.beautybooking.model.enums.TipoEventoReserva;
 import com.beautybooking.repository.FranjaHorariaRepository;
+import com.beautybooking.repository.ReservaHistoricoRepository;
 import com.beautybooking.repository.ReservaRepository;
+import com.beautybooking.repository.RetencionPlazaRepository;
 import com.beautybooking.repository.UsuarioRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +53,7 @@ import java.util.stream.Collectors;
  *
  * Responsabilidades:
  * - Crear y cancelar reservas
+ * - Retener plazas y confirmarlas como reservas (reserva en dos fases)
  * - Controlar aforo y disponibilidad
  * - Validar horarios permitidos (07:00-22:00)
  * - Gestionar estados de reservas
@@ -39,23 +64,67 @@ import java.util.stream.Collectors;
  */
 @Service
 @RequiredArgsConstructor
+@Timed(value = "reservas.servicio", histogram = true)
 public class ReservaService {
 
     private final ReservaRepository reservaRepository;
+    private final ReservaHistoricoRepository historicoRepository;
+    private final RetencionPlazaRepository retencionRepository;
     private final FranjaHorariaRepository franjaRepository;
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ContadorPlazasService contadorPlazas;
+    private final DisponibilidadCacheService disponibilidadCache;
+    private final MetricasReservasService metricas;
+    private final EventosReservaService eventos;
+    private final ListaEsperaService listaEspera;
 
     // Horarios permitidos según reglas de negocio
     private static final LocalTime HORA_APERTURA = LocalTime.of(7, 0);
     private static final LocalTime HORA_CIERRE = LocalTime.of(22, 0);
 
+    // Tamaño de página del listado de reservas (admin)
+    private static final int LIMITE_PAGINA_DEFECTO = 50;
+    private static final int LIMITE_PAGINA_MAXIMO = 200;
+
+    // Rango de fechas cuando el listado no lo limita (rango de DATE en MySQL)
+    private static final LocalDate FECHA_MINIMA = LocalDate.of(1000, 1, 1);
+    private static final LocalDate FECHA_MAXIMA = LocalDate.of(9999, 12, 31);
+
+    // Reintentos ante conflictos de versión (bloqueo optimista), con backoff exponencial aleatorio
+    private static final String MAX_INTENTOS_OPTIMISTA = "${app.reservas.optimista.max-intentos:4}";
+    private static final String ESPERA_OPTIMISTA_MS = "${app.reservas.optimista.espera-ms:20}";
+    private static final String ESPERA_MAX_OPTIMISTA_MS = "${app.reservas.optimista.espera-max-ms:200}";
+
+    /**
+     * Estrategia de concurrencia para ocupar plazas (PESIMISTA, CONDICIONAL u OPTIMISTA).
+     * Se inyecta desde application.properties (app.reservas.estrategia-plazas).
+     */
+    @Value("${app.reservas.estrategia-plazas:PESIMISTA}")
+    private EstrategiaPlazas estrategiaPlazas;
+
+    /**
+     * Minutos que dura una retención de plaza sin confirmar.
+     * Se inyecta desde application.properties (app.reservas.retenciones.minutos).
+     */
+    @Value("${app.reservas.retenciones.minutos:10}")
+    private int minutosRetencion;
+
+    /**
+     * Retenciones vigentes que puede tener un usuario a la vez.
+     * Se inyecta desde application.properties (app.reservas.retenciones.max-por-usuario).
+     */
+    @Value("${app.reservas.retenciones.max-por-usuario:3}")
+    private int maxRetencionesPorUsuario;
+
     /**
      * Crea una nueva reserva.
      *
      * Valida que el usuario existe, que hay plazas disponibles en la franja,
      * que el horario está permitido (07:00-22:00) y que no hay solapamientos.
-     * Usa bloqueo pesimista en la franja para evitar problemas de concurrencia.
+     * El control de aforo depende de la estrategia configurada: bloqueo pesimista
+     * de la franja, UPDATE condicional atómico al ocupar la plaza o bloqueo
+     * optimista por versión. Los conflictos de versión se reintentan.
      *
      * @param usuarioEmail Email del usuario que reserva
      * @param request Datos de la reserva (franjaId, notas)
@@ -64,26 +133,35 @@ public class ReservaService {
      * @throws BusinessException si viola alguna regla de negocio
      */
     @Transactional
+    @Retryable(
+            retryFor = OptimisticLockingFailureException.class,
+            maxAttemptsExpression = MAX_INTENTOS_OPTIMISTA,
+            backoff = @Backoff(delayExpression = ESPERA_OPTIMISTA_MS, maxDelayExpression = ESPERA_MAX_OPTIMISTA_MS,
+                    multiplier = 2, random = true),
+            label = "createReserva")
     public ReservaResponse createReserva(String usuarioEmail, ReservaRequest request) {
 
-        // 1. Buscar usuario que realiza la reserva
-        Usuario usuario = usuarioRepository.findByEmail(usuarioEmail)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Usuario no encontrado: " + usuarioEmail
-                ));
+        // 0. Ocupar plaza en el contador en memoria
+        // Las franjas que se sabe que están completas se rechazan sin consultar la BD
+        contadorPlazas.ocupar(request.getFranjaId());
 
-        // 2. Obtener franja con BLOQUEO PESIMISTA
-        // Esto evita que dos usuarios reserven la última plaza simultáneamente
-        // La franja queda bloqueada hasta el final de la transacción
-        FranjaHoraria franja = franjaRepository.findByIdWithLock(request.getFranjaId())
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Franja horaria no encontrada con ID: " + request.getFranjaId()
-                ));
+        // 1. PESIMISTA: bloquear la franja hasta el final de la transacción
+        // CONDICIONAL: lectura sin bloqueo, el aforo se controla al ocupar la plaza (paso 7)
+        // OPTIMISTA: lectura sin bloqueo, la versión de la franja se comprueba al confirmar
+        if (estrategiaPlazas == EstrategiaPlazas.PESIMISTA) {
+            metricas.medirEsperaBloqueo(() -> franjaRepository.findByIdWithLock(request.getFranjaId()));
+        }
+
+        // 2. Obtener usuario, franja, duplicados y solapamientos en una sola consulta
+        ReservaRepository.ValidacionReserva validacion =
+                obtenerValidacionReserva(usuarioEmail, request.getFranjaId());
+        Usuario usuario = validacion.getUsuario();
+        FranjaHoraria franja = validacion.getFranja();
 
         // 3. VALIDACIÓN: Horario permitido (07:00 - 22:00)
         if (franja.getHoraInicio().isBefore(HORA_APERTURA) ||
                 franja.getHoraFin().isAfter(HORA_CIERRE)) {
-            throw new BusinessException(
+            throw rechazo(MotivoRechazoReserva.FUERA_HORARIO,
                     "Las reservas solo están permitidas entre las 07:00 y las 22:00. " +
                             "Horario de esta franja: " + franja.getHoraInicio() + " - " + franja.getHoraFin()
             );
@@ -91,48 +169,171 @@ public class ReservaService {
 
         // 4. VALIDACIÓN: Verificar disponibilidad
         if (!franja.tieneDisponibilidad()) {
+            throw sinPlazasDisponibles(franja);
+        }
+
+        // 5. VALIDACIÓN: Evitar reservas duplicadas (mismo usuario, misma franja)
+        if (validacion.getDuplicada()) {
+            throw rechazo(MotivoRechazoReserva.DUPLICADA,
+                    "Ya tienes una reserva activa para esta franja horaria"
+            );
+        }
+
+        // 6. VALIDACIÓN: Evitar solapamientos (usuario no puede tener dos reservas al mismo tiempo)
+        if (validacion.getSolapada()) {
+            throw rechazo(MotivoRechazoReserva.SOLAPADA,
+                    "Ya tienes una reserva activa que solapa con este horario. " +
+                            "No puedes tener dos reservas al mismo tiempo."
+            );
+        }
+
+        // 7. OPERACIÓN CRÍTICA: Ocupar una plaza de la franja
+        // Lanza BusinessException si otra reserva concurrente ocupó la última plaza
+        ocuparPlaza(franja);
+        disponibilidadCache.invalidar(franja);
+
+        // 8. Crear reserva
+        Reserva reserva = new Reserva();
+        reserva.setUsuario(usuario);
+        reserva.setServicio(franja.getServicio());
+        reserva.setFranja(franja);
+        reserva.setFecha(franja.getFecha());
+        reserva.setHoraInicio(franja.getHoraInicio());
+        reserva.setHoraFin(franja.getHoraFin());
+        reserva.setEstado(EstadoReserva.PENDIENTE);
+        reserva.setPrecioFinal(franja.getServicio().getPrecio());
+        reserva.setNotas(request.getNotas());
+
+        // 9. Guardar reserva
+        Reserva savedReserva = reservaRepository.save(reserva);
+
+        // 10. Registrar el evento en la misma transacción (outbox)
+        eventos.registrar(TipoEventoReserva.CREADA, savedReserva);
+
+        // 11. Retornar respuesta
+        return mapToResponse(savedReserva);
+    }
+
+    /**
+     * Retiene una plaza de la franja durante app.reservas.retenciones.minutos
+     * (primera fase de la reserva en dos fases).
+     *
+     * La plaza se ocupa como en createReserva, según la estrategia de concurrencia,
+     * pero la sección crítica se limita a ocuparla y registrar la retención:
+     * duplicados y solapamientos se validan al confirmar, sin la franja bloqueada.
+     *
+     * @param usuarioEmail Email del usuario que retiene
+     * @param request Datos de la reserva (franjaId, notas)
+     * @return RetencionPlazaResponse con la caducidad de la retención
+     * @throws ResourceNotFoundException si usuario o franja no existen
+     * @throws BusinessException si no hay plazas, el horario no está permitido
+     *         o el usuario ya retiene la franja o demasiadas plazas
+     */
+    @Transactional
+    @Retryable(
+            retryFor = OptimisticLockingFailureException.class,
+            maxAttemptsExpression = MAX_INTENTOS_OPTIMISTA,
+            backoff = @Backoff(delayExpression = ESPERA_OPTIMISTA_MS, maxDelayExpression = ESPERA_MAX_OPTIMISTA_MS,
+                    multiplier = 2, random = true),
+            label = "retenerPlaza")
+    public RetencionPlazaResponse retenerPlaza(String usuarioEmail, ReservaRequest request) {
+
+        // 1. Antes de tocar la franja: usuario y sus retenciones (índices de retenciones_plaza)
+        Usuario usuario = usuarioRepository.findByEmail(usuarioEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado: " + usuarioEmail));
+
+        if (retencionRepository.existsByFranjaIdAndUsuarioId(request.getFranjaId(), usuario.getId())) {
+            throw new BusinessException("Ya tienes una plaza retenida en esta franja horaria");
+        }
+
+        Instant ahora = Instant.now();
+        if (retencionRepository.countByUsuarioIdAndExpiraEnAfter(usuario.getId(), ahora) >= maxRetencionesPorUsuario) {
             throw new BusinessException(
-                    "No hay plazas disponibles para esta franja horaria. " +
-                            "Servicio: " + franja.getServicio().getNombre() + ", " +
-                            "Fecha: " + franja.getFecha() + ", " +
-                            "Hora: " + franja.getHoraInicio()
+                    "No puedes retener más de " + maxRetencionesPorUsuario + " plazas a la vez"
             );
         }
 
-        // 5. VALIDACIÓN: Evitar reservas duplicadas (mismo usuario, misma franja)
+        // 2. Ocupar plaza en el contador en memoria
+        contadorPlazas.ocupar(request.getFranjaId());
+
+        // 3. Obtener franja según la estrategia de concurrencia
+        FranjaHoraria franja = obtenerFranjaParaReservar(request.getFranjaId());
+
+        // 4. VALIDACIÓN: Horario permitido (07:00 - 22:00)
+        if (franja.getHoraInicio().isBefore(HORA_APERTURA) ||
+                franja.getHoraFin().isAfter(HORA_CIERRE)) {
+            throw rechazo(MotivoRechazoReserva.FUERA_HORARIO,
+                    "Las reservas solo están permitidas entre las 07:00 y las 22:00. " +
+                            "Horario de esta franja: " + franja.getHoraInicio() + " - " + franja.getHoraFin()
+            );
+        }
+
+        // 5. VALIDACIÓN: Verificar disponibilidad
+        if (!franja.tieneDisponibilidad()) {
+            throw sinPlazasDisponibles(franja);
+        }
+
+        // 6. OPERACIÓN CRÍTICA: Ocupar una plaza de la franja
+        ocuparPlaza(franja);
+        disponibilidadCache.invalidar(franja);
+
+        // 7. Registrar la retención
+        RetencionPlaza retencion = new RetencionPlaza();
+        retencion.setFranja(franja);
+        retencion.setUsuario(usuario);
+        retencion.setNotas(request.getNotas());
+        retencion.setExpiraEn(ahora.plus(minutosRetencion, ChronoUnit.MINUTES));
+
+        return mapToResponse(retencionRepository.save(retencion));
+    }
+
+    /**
+     * Confirma una plaza retenida como reserva PENDIENTE (segunda fase).
+     *
+     * Solo bloquea la fila de la retención: la plaza ya está ocupada, así que
+     * la franja no se bloquea y las validaciones de duplicado y solapamiento
+     * no compiten con otras reservas de la franja. Si fallan, la retención
+     * se mantiene hasta que el usuario la libere o caduque.
+     *
+     * @param id ID de la retención
+     * @param usuarioEmail Email del usuario
+     * @return ReservaResponse con datos de la reserva creada
+     * @throws ResourceNotFoundException si la retención no existe
+     * @throws BusinessException si no pertenece al usuario, ha caducado
+     *         o la reserva viola alguna regla de negocio
+     */
+    @Transactional
+    public ReservaResponse confirmarRetencion(Long id, String usuarioEmail) {
+        RetencionPlaza retencion = obtenerRetencionDelUsuario(id, usuarioEmail);
+
+        if (retencion.haCaducado(Instant.now())) {
+            throw new BusinessException("La retención ha caducado. Vuelve a reservar la franja si sigue disponible");
+        }
+
+        Usuario usuario = retencion.getUsuario();
+        FranjaHoraria franja = retencion.getFranja();
+
+        // VALIDACIÓN: Evitar reservas duplicadas (mismo usuario, misma franja)
         if (reservaRepository.existsByUsuarioIdAndFranjaId(usuario.getId(), franja.getId())) {
-            throw new BusinessException(
+            throw rechazo(MotivoRechazoReserva.DUPLICADA,
                     "Ya tienes una reserva activa para esta franja horaria"
             );
         }
 
-        // 6. VALIDACIÓN: Evitar solapamientos (usuario no puede tener dos reservas al mismo tiempo)
+        // VALIDACIÓN: Evitar solapamientos
         List<EstadoReserva> estadosActivos = Arrays.asList(
                 EstadoReserva.PENDIENTE,
                 EstadoReserva.CONFIRMADA
         );
-
-        boolean tieneSolapamiento = reservaRepository.existsSolapamiento(
-                usuario,
-                franja.getFecha(),
-                franja.getHoraInicio(),
-                franja.getHoraFin(),
-                estadosActivos
-        );
-
-        if (tieneSolapamiento) {
-            throw new BusinessException(
+        if (reservaRepository.existsSolapamiento(usuario, franja.getFecha(),
+                franja.getHoraInicio(), franja.getHoraFin(), estadosActivos)) {
+            throw rechazo(MotivoRechazoReserva.SOLAPADA,
                     "Ya tienes una reserva activa que solapa con este horario. " +
                             "No puedes tener dos reservas al mismo tiempo."
             );
         }
 
-        // 7. OPERACIÓN CRÍTICA: Decrementar plazas disponibles
-        // Se hace dentro de la transacción con la franja bloqueada
-        franja.decrementarPlazas();
-        franjaRepository.save(franja);
-
-        // 8. Crear reserva
+        // La plaza retenida pasa a la reserva
         Reserva reserva = new Reserva();
         reserva.setUsuario(usuario);
         reserva.setServicio(franja.getServicio());
@@ -142,15 +343,74 @@ public class ReservaService {
         reserva.setHoraFin(franja.getHoraFin());
         reserva.setEstado(EstadoReserva.PENDIENTE);
         reserva.setPrecioFinal(franja.getServicio().getPrecio());
-        reserva.setNotas(request.getNotas());
+        reserva.setNotas(retencion.getNotas());
 
-        // 9. Guardar reserva
         Reserva savedReserva = reservaRepository.save(reserva);
+        retencionRepository.delete(retencion);
+        eventos.registrar(TipoEventoReserva.CREADA, savedReserva);
 
-        // 10. Retornar respuesta
         return mapToResponse(savedReserva);
     }
 
+    /**
+     * Libera una plaza retenida sin confirmarla.
+     *
+     * @param id ID de la retención
+     * @param usuarioEmail Email del usuario
+     * @return ApiResponse confirmando la liberación
+     * @throws ResourceNotFoundException si la retención no existe
+     * @throws BusinessException si no pertenece al usuario
+     */
+    @Transactional
+    public ApiResponse liberarRetencion(Long id, String usuarioEmail) {
+        RetencionPlaza retencion = obtenerRetencionDelUsuario(id, usuarioEmail);
+        FranjaHoraria franja = retencion.getFranja();
+
+        retencionRepository.delete(retencion);
+
+        bloquearFranja(franja);
+        franja.incrementarPlazas();
+        liberarPlaza(franja);
+
+        return ApiResponse.success("Plaza liberada correctamente");
+    }
+
+    /**
+     * Libera un lote de retenciones caducadas en una transacción.
+     *
+     * Las retenciones se bloquean y eliminan con un único DELETE; después se
+     * devuelve cada plaza a su franja (o a su lista de espera), bloqueando
+     * las franjas en orden de ID para no provocar interbloqueos.
+     *
+     * @param ahora Instante de referencia
+     * @param lote Tamaño máximo del lote
+     * @return Retenciones liberadas en el lote
+     */
+    @Transactional
+    public int liberarRetencionesCaducadas(Instant ahora, int lote) {
+        List<RetencionPlaza> caducadas = retencionRepository.findCaducadas(ahora, PageRequest.of(0, lote));
+        if (caducadas.isEmpty()) {
+            return 0;
+        }
+
+        retencionRepository.deleteByIdIn(caducadas.stream().map(RetencionPlaza::getId).toList());
+
+        Map<Long, Long> plazasPorFranja = caducadas.stream()
+                .collect(Collectors.groupingBy(retencion -> retencion.getFranja().getId(),
+                        TreeMap::new, Collectors.counting()));
+
+        plazasPorFranja.forEach((franjaId, plazas) ->
+                metricas.medirEsperaBloqueo(() -> franjaRepository.findByIdWithLock(franjaId))
+                        .ifPresent(franja -> {
+                            for (long i = 0; i < plazas; i++) {
+                                franja.incrementarPlazas();
+                                liberarPlaza(franja);
+                            }
+                        }));
+
+        return caducadas.size();
+    }
+
     /**
      * Obtiene todas las reservas de un usuario.
      *
@@ -162,9 +422,14 @@ public class ReservaService {
         Usuario usuario = usuarioRepository.findByEmail(usuarioEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado: " + usuarioEmail));
 
-        return reservaRepository.findByUsuarioIdOrderByFechaDescHoraInicioDesc(usuario.getId()).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        // Reservas activas y archivadas: las antiguas pendientes o confirmadas siguen
+        // en 'reservas', así que se ordena el conjunto completo
+        List<ReservaResponse> reservas = new ArrayList<>(reservaRepository.findResponsesByUsuarioId(usuario.getId()));
+        reservas.addAll(historicoRepository.findResponsesByUsuarioId(usuario.getId()));
+        reservas.sort(Comparator.comparing(ReservaResponse::getFecha)
+                .thenComparing(ReservaResponse::getHoraInicio)
+                .reversed());
+        return reservas;
     }
 
     /**
@@ -179,15 +444,20 @@ public class ReservaService {
      */
     @Transactional(readOnly = true)
     public ReservaResponse getReservaById(Long id, String usuarioEmail) {
-        Reserva reserva = reservaRepository.findById(id)
+        Optional<Reserva> activa = reservaRepository.findById(id);
+
+        // Si no está en 'reservas', puede estar en el histórico
+        ReservaResponse reserva = activa.isPresent()
+                ? mapToResponse(activa.get())
+                : historicoRepository.findResponseById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reserva no encontrada con ID: " + id));
 
         // Verificar que la reserva pertenece al usuario
-        if (!reserva.getUsuario().getEmail().equals(usuarioEmail)) {
+        if (!reserva.getUsuarioEmail().equals(usuarioEmail)) {
             throw new BusinessException("No tienes permiso para ver esta reserva");
         }
 
-        return mapToResponse(reserva);
+        return reserva;
     }
 
     /**
@@ -222,16 +492,19 @@ public class ReservaService {
             );
         }
 
+        // Bloquear la franja antes de liberar la plaza para no pisar
+        // las plazas ocupadas por reservas concurrentes
+        bloquearFranja(reserva.getFranja());
+
         // Cancelar reserva (esto también libera la plaza en la franja)
         reserva.cancelar();
 
         // Guardar cambios
         reservaRepository.save(reserva);
+        eventos.registrar(TipoEventoReserva.CANCELADA, reserva);
 
-        // Si la franja fue modificada, guardarla también
-        if (reserva.getFranja() != null) {
-            franjaRepository.save(reserva.getFranja());
-        }
+        // Ceder la plaza a la lista de espera o devolverla a la franja
+        liberarPlaza(reserva.getFranja());
 
         return ApiResponse.success("Reserva cancelada correctamente");
     }
@@ -265,16 +538,19 @@ public class ReservaService {
             );
         }
 
+        // Bloquear la franja antes de liberar la plaza para no pisar
+        // las plazas ocupadas por reservas concurrentes
+        bloquearFranja(reserva.getFranja());
+
         // Cancelar reserva (esto también libera la plaza en la franja)
         reserva.cancelar();
 
         // Guardar cambios
         reservaRepository.save(reserva);
+        eventos.registrar(TipoEventoReserva.CANCELADA, reserva);
 
-        // Si la franja fue modificada, guardarla también
-        if (reserva.getFranja() != null) {
-            franjaRepository.save(reserva.getFranja());
-        }
+        // Ceder la plaza a la lista de espera o devolverla a la franja
+        liberarPlaza(reserva.getFranja());
 
         return ApiResponse.success(
                 "Reserva cancelada correctamente por el administrador. " +
@@ -283,15 +559,64 @@ public class ReservaService {
     }
 
     /**
-     * Obtiene todas las reservas del sistema (solo ADMIN).
+     * Obtiene las reservas del sistema paginadas por cursor (solo ADMIN).
+     *
+     * Las reservas se ordenan por fecha, hora de inicio e ID. Cada página
+     * continúa tras la última reserva de la anterior (keyset), por lo que el
+     * coste no depende de cuántas reservas haya ni de la página pedida.
      *
-     * @return Lista de todas las ReservaResponse
+     * @param estado Estado a filtrar (opcional)
+     * @param servicioId Servicio a filtrar (opcional)
+     * @param usuarioId Usuario a filtrar (opcional)
+     * @param desde Fecha inicial del rango, inclusive (opcional)
+     * @param hasta Fecha final del rango, inclusive (opcional)
+     * @param cursor Cursor devuelto por la página anterior (null para la primera)
+     * @param limite Tamaño de página (por defecto 50, máximo 200)
+     * @return Página de ReservaResponse con el cursor de la siguiente
+     * @throws BusinessException si el rango de fechas o el cursor no son válidos
      */
     @Transactional(readOnly = true)
-    public List<ReservaResponse> getAllReservas() {
-        return reservaRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public PaginaResponse<ReservaResponse> getReservasPaginadas(
+            EstadoReserva estado,
+            Long servicioId,
+            Long usuarioId,
+            LocalDate desde,
+            LocalDate hasta,
+            String cursor,
+            Integer limite) {
+
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            throw new BusinessException("La fecha inicial debe ser anterior a la fecha final");
+        }
+
+        int tamanoPagina = limite == null
+                ? LIMITE_PAGINA_DEFECTO
+                : Math.min(Math.max(limite, 1), LIMITE_PAGINA_MAXIMO);
+
+        // Sin cursor se empieza en el primer instante del rango
+        CursorReserva posicion = cursor != null && !cursor.isBlank()
+                ? decodificarCursor(cursor)
+                : new CursorReserva(desde != null ? desde : FECHA_MINIMA, LocalTime.MIN, 0L);
+
+        // Se pide un elemento más para saber si hay página siguiente
+        List<ReservaResponse> reservas = reservaRepository.findPaginaResponses(
+                posicion.fecha(),
+                posicion.horaInicio(),
+                posicion.id(),
+                hasta != null ? hasta : FECHA_MAXIMA,
+                estado,
+                servicioId,
+                usuarioId,
+                PageRequest.of(0, tamanoPagina + 1)
+        );
+
+        if (reservas.size() <= tamanoPagina) {
+            return new PaginaResponse<>(reservas, null);
+        }
+
+        List<ReservaResponse> pagina = reservas.subList(0, tamanoPagina);
+        ReservaResponse ultima = pagina.get(tamanoPagina - 1);
+        return new PaginaResponse<>(pagina, codificarCursor(ultima));
     }
 
     /**
@@ -307,9 +632,7 @@ public class ReservaService {
                 EstadoReserva.CONFIRMADA
         );
 
-        return reservaRepository.findReservasDelDia(LocalDate.now(), estadosActivos).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return reservaRepository.findResponsesDelDia(LocalDate.now(), estadosActivos);
     }
 
     /**
@@ -327,6 +650,7 @@ public class ReservaService {
 
         reserva.confirmar();
         Reserva updatedReserva = reservaRepository.save(reserva);
+        eventos.registrar(TipoEventoReserva.CONFIRMADA, updatedReserva);
 
         return mapToResponse(updatedReserva);
     }
@@ -346,6 +670,7 @@ public class ReservaService {
 
         reserva.completar();
         Reserva updatedReserva = reservaRepository.save(reserva);
+        eventos.registrar(TipoEventoReserva.COMPLETADA, updatedReserva);
 
         return mapToResponse(updatedReserva);
     }
@@ -362,6 +687,12 @@ public class ReservaService {
      * @return ReservaResponse
      */
     @Transactional
+    @Retryable(
+            retryFor = OptimisticLockingFailureException.class,
+            maxAttemptsExpression = MAX_INTENTOS_OPTIMISTA,
+            backoff = @Backoff(delayExpression = ESPERA_OPTIMISTA_MS, maxDelayExpression = ESPERA_MAX_OPTIMISTA_MS,
+                    multiplier = 2, random = true),
+            label = "createReservaManualConAutoRegistro")
     public ReservaResponse createReservaManualConAutoRegistro(
             String usuarioEmail,
             String usuarioNombre,
@@ -408,6 +739,12 @@ public class ReservaService {
      * @throws BusinessException si la reserva no es editable o viola reglas de negocio
      */
     @Transactional
+    @Retryable(
+            retryFor = OptimisticLockingFailureException.class,
+            maxAttemptsExpression = MAX_INTENTOS_OPTIMISTA,
+            backoff = @Backoff(delayExpression = ESPERA_OPTIMISTA_MS, maxDelayExpression = ESPERA_MAX_OPTIMISTA_MS,
+                    multiplier = 2, random = true),
+            label = "editarReserva")
     public ReservaResponse editarReserva(Long id, ReservaRequest request) {
 
         // 1. Buscar reserva
@@ -432,37 +769,35 @@ public class ReservaService {
         // 3. Verificar si se está cambiando la franja
         Long nuevaFranjaId = request.getFranjaId();
         boolean cambiaFranja = !reserva.getFranja().getId().equals(nuevaFranjaId);
+        Long franjaAnteriorId = cambiaFranja ? reserva.getFranja().getId() : null;
 
         if (cambiaFranja) {
-            // 3a. Obtener franja anterior para liberar su plaza
-            FranjaHoraria franjaAnterior = reserva.getFranja();
+            // Ocupar plaza de la nueva franja en el contador en memoria
+            contadorPlazas.ocupar(nuevaFranjaId);
 
-            // 3b. Obtener nueva franja con BLOQUEO PESIMISTA
-            FranjaHoraria nuevaFranja = franjaRepository.findByIdWithLock(nuevaFranjaId)
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            "Franja horaria no encontrada con ID: " + nuevaFranjaId
-                    ));
+            // 3a. PESIMISTA: bloquear la franja anterior (para liberar su plaza) y la nueva
+            // en orden de ID: dos ediciones cruzadas (A→B y B→A) no se interbloquean
+            // CONDICIONAL y OPTIMISTA: lectura sin bloqueo, el aforo se controla en el paso 3e
+            FranjaHoraria franjaAnterior = reserva.getFranja();
+            FranjaHoraria nuevaFranja = estrategiaPlazas == EstrategiaPlazas.PESIMISTA
+                    ? bloquearFranjasEnOrden(franjaAnterior, nuevaFranjaId)
+                    : obtenerFranjaParaReservar(nuevaFranjaId);
 
-            // 3c. VALIDACIÓN: Horario permitido (07:00 - 22:00)
+            // 3b. VALIDACIÓN: Horario permitido (07:00 - 22:00)
             if (nuevaFranja.getHoraInicio().isBefore(HORA_APERTURA) ||
                     nuevaFranja.getHoraFin().isAfter(HORA_CIERRE)) {
-                throw new BusinessException(
+                throw rechazo(MotivoRechazoReserva.FUERA_HORARIO,
                         "Las reservas solo están permitidas entre las 07:00 y las 22:00. " +
                                 "Horario de esta franja: " + nuevaFranja.getHoraInicio() + " - " + nuevaFranja.getHoraFin()
                 );
             }
 
-            // 3d. VALIDACIÓN: Verificar disponibilidad de la nueva franja
+            // 3c. VALIDACIÓN: Verificar disponibilidad de la nueva franja
             if (!nuevaFranja.tieneDisponibilidad()) {
-                throw new BusinessException(
-                        "No hay plazas disponibles para esta franja horaria. " +
-                                "Servicio: " + nuevaFranja.getServicio().getNombre() + ", " +
-                                "Fecha: " + nuevaFranja.getFecha() + ", " +
-                                "Hora: " + nuevaFranja.getHoraInicio()
-                );
+                throw sinPlazasDisponibles(nuevaFranja);
             }
 
-            // 3e. VALIDACIÓN: Evitar solapamientos con otras reservas del usuario
+            // 3d. VALIDACIÓN: Evitar solapamientos con otras reservas del usuario
             // (excluyendo la reserva actual)
             List<EstadoReserva> estadosActivos = Arrays.asList(
                     EstadoReserva.PENDIENTE,
@@ -474,34 +809,41 @@ public class ReservaService {
                     estadosActivos
             ).stream()
                     .filter(r -> !r.getId().equals(id)) // Excluir la reserva actual
-                    .anyMatch(r ->
-                            r.getFecha().equals(nuevaFranja.getFecha()) &&
-                                    !(nuevaFranja.getHoraFin().isBefore(r.getHoraInicio()) ||
-                                            nuevaFranja.getHoraInicio().isAfter(r.getHoraFin()))
-                    );
+                    .anyMatch(r -> r.solapaCon(
+                            nuevaFranja.getFecha(),
+                            nuevaFranja.getHoraInicio(),
+                            nuevaFranja.getHoraFin()
+                    ));
 
             if (tieneSolapamiento) {
-                throw new BusinessException(
+                throw rechazo(MotivoRechazoReserva.SOLAPADA,
                         "El usuario ya tiene otra reserva activa que solapa con este horario. " +
                                 "No puede tener dos reservas al mismo tiempo."
                 );
             }
 
-            // 3f. OPERACIÓN CRÍTICA: Liberar plaza de la franja anterior
-            franjaAnterior.incrementarPlazas();
-            franjaRepository.save(franjaAnterior);
-
-            // 3g. OPERACIÓN CRÍTICA: Decrementar plazas de la nueva franja
-            nuevaFranja.decrementarPlazas();
-            franjaRepository.save(nuevaFranja);
+            // 3e. OPERACIÓN CRÍTICA: Liberar plaza de la franja anterior (o cederla
+            // al primero de su lista de espera) y ocupar una de la nueva, en orden de ID:
+            // con CONDICIONAL y OPTIMISTA las filas se bloquean al escribirlas
+            if (nuevaFranja.getId() < franjaAnterior.getId()) {
+                ocuparPlaza(nuevaFranja);
+                devolverPlaza(franjaAnterior);
+            } else {
+                devolverPlaza(franjaAnterior);
+                ocuparPlaza(nuevaFranja);
+            }
+            disponibilidadCache.invalidar(nuevaFranja);
 
-            // 3h. Actualizar datos de la reserva con la nueva franja
+            // 3f. Actualizar datos de la reserva con la nueva franja
             reserva.setFranja(nuevaFranja);
             reserva.setServicio(nuevaFranja.getServicio());
             reserva.setFecha(nuevaFranja.getFecha());
             reserva.setHoraInicio(nuevaFranja.getHoraInicio());
             reserva.setHoraFin(nuevaFranja.getHoraFin());
             reserva.setPrecioFinal(nuevaFranja.getServicio().getPrecio());
+
+            // 3g. La cita ha cambiado: se recordará de nuevo
+            reserva.setRecordatorioEnviadoEn(null);
         }
 
         // 4. Actualizar notas (siempre, aunque sea null para borrarlas)
@@ -509,10 +851,281 @@ public class ReservaService {
 
         // 5. Guardar cambios
         Reserva reservaActualizada = reservaRepository.save(reserva);
+        eventos.registrar(TipoEventoReserva.MODIFICADA, reservaActualizada, franjaAnteriorId);
 
         return mapToResponse(reservaActualizada);
     }
 
+    /**
+     * Obtiene la franja que se va a reservar según la estrategia de concurrencia.
+     *
+     * PESIMISTA: la bloquea (SELECT ... FOR UPDATE) hasta el final de la transacción.
+     * CONDICIONAL y OPTIMISTA: la leen sin bloqueo; el aforo se garantiza en ocuparPlaza.
+     *
+     * @param franjaId ID de la franja
+     * @return FranjaHoraria a reservar
+     * @throws ResourceNotFoundException si la franja no existe
+     */
+    private FranjaHoraria obtenerFranjaParaReservar(Long franjaId) {
+        Optional<FranjaHoraria> franja = estrategiaPlazas == EstrategiaPlazas.PESIMISTA
+                ? metricas.medirEsperaBloqueo(() -> franjaRepository.findByIdWithLock(franjaId))
+                : franjaRepository.findById(franjaId);
+
+        return franja.orElseThrow(() -> new ResourceNotFoundException(
+                "Franja horaria no encontrada con ID: " + franjaId
+        ));
+    }
+
+    /**
+     * Obtiene los datos de validación de una nueva reserva en una sola consulta.
+     *
+     * Si la consulta no devuelve nada, comprueba si falta el usuario o la franja
+     * para informar del error concreto (solo en el camino de error).
+     *
+     * @param usuarioEmail Email del usuario que reserva
+     * @param franjaId ID de la franja
+     * @return Franja (con servicio), usuario y flags de duplicado y solapamiento
+     * @throws ResourceNotFoundException si el usuario o la franja no existen
+     */
+    private ReservaRepository.ValidacionReserva obtenerValidacionReserva(String usuarioEmail, Long franjaId) {
+        List<EstadoReserva> estadosActivos = Arrays.asList(
+                EstadoReserva.PENDIENTE,
+                EstadoReserva.CONFIRMADA
+        );
+
+        return reservaRepository.findValidacionReserva(usuarioEmail, franjaId, estadosActivos)
+                .orElseThrow(() -> usuarioRepository.findByEmail(usuarioEmail).isEmpty()
+                        ? new ResourceNotFoundException("Usuario no encontrado: " + usuarioEmail)
+                        : new ResourceNotFoundException("Franja horaria no encontrada con ID: " + franjaId));
+    }
+
+    /**
+     * Ocupa una plaza de la franja según la estrategia de concurrencia.
+     *
+     * CONDICIONAL: un único UPDATE atómico decide si quedaba plaza. La franja no
+     * está bloqueada durante las validaciones, pero el UPDATE bloquea la fila
+     * hasta el commit, también mientras se insertan la reserva y su evento. Va
+     * antes de esos INSERT: la clave ajena de la reserva bloquearía la franja en
+     * modo compartido y dos reservas concurrentes se interbloquearían al
+     * pedir el UPDATE. La entidad franja no se actualiza (plazas y versión
+     * quedan las leídas), así que no debe guardarse después.
+     * PESIMISTA: la franja ya está bloqueada y se decrementa en memoria.
+     * OPTIMISTA: se decrementa en memoria; si otra transacción modificó la franja,
+     * Hibernate rechaza la escritura por versión y la reserva se reintenta.
+     *
+     * @param franja Franja en la que se ocupa la plaza
+     * @throws BusinessException si no quedan plazas disponibles
+     */
+    private void ocuparPlaza(FranjaHoraria franja) {
+        if (estrategiaPlazas == EstrategiaPlazas.CONDICIONAL) {
+            // 0 filas afectadas: otra reserva concurrente ocupó la última plaza
+            if (franjaRepository.decrementarPlazasSiDisponible(franja.getId()) == 0) {
+                throw sinPlazasDisponibles(franja);
+            }
+            return;
+        }
+
+        franja.decrementarPlazas();
+        franjaRepository.save(franja);
+    }
+
+    /**
+     * Bloquea la franja (SELECT ... FOR UPDATE) antes de liberar una plaza.
+     *
+     * Recarga las plazas dentro del bloqueo para que el incremento no
+     * sobrescriba las plazas ocupadas por otras transacciones.
+     *
+     * @param franja Franja de la reserva (puede ser null si se eliminó)
+     */
+    private void bloquearFranja(FranjaHoraria franja) {
+        if (franja != null) {
+            metricas.medirEsperaBloqueo(() -> franjaRepository.findByIdWithLock(franja.getId()));
+        }
+    }
+
+    /**
+     * Obtiene una retención bloqueada y comprueba que pertenece al usuario.
+     *
+     * @param id ID de la retención
+     * @param usuarioEmail Email del usuario
+     * @return Retención bloqueada hasta el final de la transacción
+     * @throws ResourceNotFoundException si no existe
+     * @throws BusinessException si no pertenece al usuario
+     */
+    private RetencionPlaza obtenerRetencionDelUsuario(Long id, String usuarioEmail) {
+        RetencionPlaza retencion = retencionRepository.findByIdWithLock(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Retención de plaza no encontrada con ID: " + id));
+
+        if (!retencion.getUsuario().getEmail().equals(usuarioEmail)) {
+            throw new BusinessException("No tienes permiso para gestionar esta retención de plaza");
+        }
+
+        return retencion;
+    }
+
+    /**
+     * Guarda una franja a la que se acaba de devolver una plaza (con la franja bloqueada).
+     *
+     * Si alguien espera plaza en la franja, se le cede en la misma transacción
+     * y la franja sigue igual de ocupada. Si no, la plaza vuelve al contador
+     * en memoria y se invalida la disponibilidad.
+     *
+     * @param franja Franja de la reserva (puede ser null si se eliminó)
+     */
+    private void liberarPlaza(FranjaHoraria franja) {
+        if (franja == null) {
+            return;
+        }
+
+        boolean cedida = listaEspera.cederPlaza(franja);
+        franjaRepository.save(franja);
+
+        if (!cedida) {
+            contadorPlazas.liberar(franja.getId());
+            disponibilidadCache.invalidar(franja);
+        }
+    }
+
+    /**
+     * Devuelve una plaza a la franja anterior de una reserva que cambia de franja.
+     *
+     * La escritura se envía en ese momento (flush) para que las dos franjas se
+     * escriban en el orden en que se llama a devolverPlaza y ocuparPlaza. Con
+     * PESIMISTA la franja ya está bloqueada; con CONDICIONAL y OPTIMISTA el
+     * UPDATE comprueba la versión y, si otra transacción la modificó, la
+     * edición se reintenta.
+     *
+     * @param franja Franja anterior de la reserva
+     */
+    private void devolverPlaza(FranjaHoraria franja) {
+        franja.incrementarPlazas();
+        liberarPlaza(franja);
+        franjaRepository.flush();
+    }
+
+    /**
+     * Bloquea las dos franjas de un cambio de franja en orden de ID ascendente
+     * (estrategia PESIMISTA).
+     *
+     * @param franjaAnterior Franja actual de la reserva
+     * @param nuevaFranjaId ID de la franja destino
+     * @return Nueva franja bloqueada
+     * @throws ResourceNotFoundException si la nueva franja no existe
+     */
+    private FranjaHoraria bloquearFranjasEnOrden(FranjaHoraria franjaAnterior, Long nuevaFranjaId) {
+        if (nuevaFranjaId < franjaAnterior.getId()) {
+            FranjaHoraria nuevaFranja = bloquearFranjaPorId(nuevaFranjaId);
+            bloquearFranja(franjaAnterior);
+            return nuevaFranja;
+        }
+
+        bloquearFranja(franjaAnterior);
+        return bloquearFranjaPorId(nuevaFranjaId);
+    }
+
+    /**
+     * Obtiene una franja bloqueada (SELECT ... FOR UPDATE) hasta el final de la transacción.
+     *
+     * @param franjaId ID de la franja
+     * @return Franja bloqueada
+     * @throws ResourceNotFoundException si la franja no existe
+     */
+    private FranjaHoraria bloquearFranjaPorId(Long franjaId) {
+        return metricas.medirEsperaBloqueo(() -> franjaRepository.findByIdWithLock(franjaId))
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Franja horaria no encontrada con ID: " + franjaId
+                ));
+    }
+
+    /**
+     * Construye la excepción de franja sin plazas disponibles.
+     * Registra además la franja como completa en el contador en memoria.
+     *
+     * @param franja Franja completa
+     * @return BusinessException con servicio, fecha y hora de la franja
+     */
+    private BusinessException sinPlazasDisponibles(FranjaHoraria franja) {
+        contadorPlazas.marcarCompleta(franja.getId());
+
+        return rechazo(MotivoRechazoReserva.SIN_PLAZAS,
+                "No hay plazas disponibles para esta franja horaria. " +
+                        "Servicio: " + franja.getServicio().getNombre() + ", " +
+                        "Fecha: " + franja.getFecha() + ", " +
+                        "Hora: " + franja.getHoraInicio()
+        );
+    }
+
+    /**
+     * Construye la excepción de una reserva rechazada y la cuenta en las métricas.
+     *
+     * @param motivo Motivo del rechazo (etiqueta de reservas.rechazos)
+     * @param mensaje Mensaje para el cliente
+     * @return BusinessException con el mensaje
+     */
+    private BusinessException rechazo(MotivoRechazoReserva motivo, String mensaje) {
+        metricas.registrarRechazo(motivo);
+        return new BusinessException(mensaje);
+    }
+
+    /**
+     * Codifica la posición de una reserva como cursor opaco (Base64 URL).
+     *
+     * @param reserva Última reserva de la página
+     * @return Cursor "fecha|horaInicio|id" codificado
+     */
+    private String codificarCursor(ReservaResponse reserva) {
+        String posicion = reserva.getFecha() + "|" + reserva.getHoraInicio() + "|" + reserva.getId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(posicion.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor generado por codificarCursor.
+     *
+     * @param cursor Cursor recibido del cliente
+     * @return Posición (fecha, horaInicio, id) tras la que continúa el listado
+     * @throws BusinessException si el cursor no es válido
+     */
+    private CursorReserva decodificarCursor(String cursor) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\|");
+            if (partes.length != 3) {
+                throw new BusinessException("Cursor de paginación no válido");
+            }
+            return new CursorReserva(LocalDate.parse(partes[0]), LocalTime.parse(partes[1]), Long.valueOf(partes[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Cursor de paginación no válido");
+        }
+    }
+
+    /**
+     * Posición de una reserva en el orden del listado paginado.
+     */
+    private record CursorReserva(LocalDate fecha, LocalTime horaInicio, Long id) {
+    }
+
+    /**
+     * Convierte entidad RetencionPlaza a DTO RetencionPlazaResponse.
+     *
+     * @param retencion Entidad RetencionPlaza
+     * @return RetencionPlazaResponse con datos de la franja
+     */
+    private RetencionPlazaResponse mapToResponse(RetencionPlaza retencion) {
+        FranjaHoraria franja = retencion.getFranja();
+        return new RetencionPlazaResponse(
+                retencion.getId(),
+                franja.getId(),
+                franja.getServicio().getId(),
+                franja.getServicio().getNombre(),
+                franja.getFecha(),
+                franja.getHoraInicio(),
+                franja.getHoraFin(),
+                retencion.getNotas(),
+                retencion.getExpiraEn()
+        );
+    }
+
     /**
      * Convierte entidad Reserva a DTO ReservaResponse.
      *
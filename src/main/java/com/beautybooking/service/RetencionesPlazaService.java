@@ -0,0 +1,84 @@
+package com.beautybooking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * Servicio de liberación de retenciones de plaza caducadas.
+ *
+ * Cada app.reservas.retenciones.intervalo-ms recorre las retenciones cuya
+ * caducidad ha pasado, en orden de caducidad sobre idx_retenciones_plaza_expira:
+ * - Por lotes, cada uno en su propia transacción (ReservaService.liberarRetencionesCaducadas)
+ * - Cada plaza vuelve a su franja o pasa al primero de su lista de espera
+ * - Con un máximo de lotes por pasada; el resto se libera en la siguiente
+ *
+ * Mientras no se liberan, las retenciones caducadas ya no se pueden confirmar.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RetencionesPlazaService {
+
+    private final ReservaService reservaService;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Retenciones liberadas por lote (y por transacción).
+     * Se inyecta desde application.properties (app.reservas.retenciones.tamanio-lote).
+     */
+    @Value("${app.reservas.retenciones.tamanio-lote:100}")
+    private int tamanioLote;
+
+    /**
+     * Lotes máximos por pasada.
+     * Se inyecta desde application.properties (app.reservas.retenciones.max-lotes).
+     */
+    @Value("${app.reservas.retenciones.max-lotes:50}")
+    private int maxLotes;
+
+    /**
+     * Libera las retenciones caducadas cada app.reservas.retenciones.intervalo-ms
+     * (desde el final de la pasada anterior).
+     */
+    @Scheduled(fixedDelayString = "${app.reservas.retenciones.intervalo-ms:30000}")
+    public void liberarCaducadas() {
+        Counter liberadas = Counter.builder("reservas.retenciones.caducadas")
+                .description("Retenciones de plaza caducadas sin confirmar y liberadas")
+                .register(meterRegistry);
+
+        Instant ahora = Instant.now();
+        int total = 0;
+
+        for (int lotes = 0; lotes < maxLotes; lotes++) {
+            int liberadasLote;
+            try {
+                liberadasLote = reservaService.liberarRetencionesCaducadas(ahora, tamanioLote);
+            } catch (RuntimeException e) {
+                log.error("Error liberando retenciones de plaza caducadas; se reintentará", e);
+                break;
+            }
+
+            total += liberadasLote;
+            liberadas.increment(liberadasLote);
+
+            if (liberadasLote < tamanioLote) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Liberadas {} retenciones de plaza caducadas antes de {}", total, ahora);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- ========================================
+-- BEAUTYBOOKING - BLOQUEO OPTIMISTA DE FRANJAS
+-- ========================================
+-- Columna de versión para @Version en FranjaHoraria.
+-- Cada modificación de la franja incrementa la versión; una escritura
+-- con una versión antigua se rechaza y la reserva se reintenta.
+-- ========================================
+
+ALTER TABLE franjas_horarias ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,19 @@
+-- ========================================
+-- BEAUTYBOOKING - GENERADORES DE IDS POR TABLA
+-- ========================================
+-- Hibernate no puede agrupar INSERT en lotes con ids AUTO_INCREMENT (IDENTITY):
+-- necesita el id de cada fila antes de insertarla. Los ids de usuarios,
+-- servicios y franjas pasan a reservarse en bloques de 50 desde esta tabla
+-- (optimizador pooled-lo); ultimo_valor es el último id ya reservado.
+-- Las columnas AUTO_INCREMENT se mantienen; los INSERT envían el id.
+-- Las reservas siguen con AUTO_INCREMENT (se insertan de una en una).
+-- ========================================
+
+CREATE TABLE secuencias_id (
+                               nombre VARCHAR(64) PRIMARY KEY,
+                               ultimo_valor BIGINT NOT NULL
+);
+
+INSERT INTO secuencias_id (nombre, ultimo_valor) SELECT 'usuarios', COALESCE(MAX(id), 0) FROM usuarios;
+INSERT INTO secuencias_id (nombre, ultimo_valor) SELECT 'servicios', COALESCE(MAX(id), 0) FROM servicios;
+INSERT INTO secuencias_id (nombre, ultimo_valor) SELECT 'franjas_horarias', COALESCE(MAX(id), 0) FROM franjas_horarias;
@@ -0,0 +1,33 @@
+-- ========================================
+-- BEAUTYBOOKING - HISTÓRICO DE RESERVAS
+-- ========================================
+-- Las reservas COMPLETADAS y CANCELADAS anteriores al horizonte de archivo
+-- se mueven por lotes de reservas a esta tabla, para que la tabla activa
+-- (solapamientos, citas del día, reservas por usuario) se mantenga pequeña.
+-- Conserva el id original de la reserva. franja_id no tiene clave foránea:
+-- la purga de franjas pasadas puede eliminar la franja.
+-- ========================================
+
+CREATE TABLE reservas_historico (
+                                    id BIGINT PRIMARY KEY,
+                                    usuario_id BIGINT NOT NULL,
+                                    servicio_id BIGINT NOT NULL,
+                                    franja_id BIGINT,
+                                    fecha DATE NOT NULL,
+                                    hora_inicio TIME NOT NULL,
+                                    hora_fin TIME NOT NULL,
+                                    estado VARCHAR(20) NOT NULL,
+                                    precio_final DECIMAL(7,2),
+                                    notas TEXT,
+                                    creado_en TIMESTAMP NOT NULL,
+                                    archivado_en TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+                                    FOREIGN KEY (usuario_id) REFERENCES usuarios(id) ON DELETE RESTRICT,
+                                    FOREIGN KEY (servicio_id) REFERENCES servicios(id) ON DELETE RESTRICT,
+
+                                    CHECK (estado IN ('COMPLETADA', 'CANCELADA')),
+
+                                    INDEX idx_reservas_historico_usuario_fecha (usuario_id, fecha),
+                                    INDEX idx_reservas_historico_fecha_hora (fecha, hora_inicio),
+                                    INDEX idx_reservas_historico_franja (franja_id)
+);
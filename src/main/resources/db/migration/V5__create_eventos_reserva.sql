@@ -0,0 +1,33 @@
+-- ========================================
+-- BEAUTYBOOKING - EVENTOS DE RESERVAS (OUTBOX)
+-- ========================================
+-- Cada cambio de estado de una reserva (creación, confirmación, completado,
+-- cancelación, modificación) inserta una fila en la misma transacción que
+-- el cambio. Un proceso en segundo plano las publica por lotes en orden de
+-- id y marca procesado_en; las procesadas se eliminan tras la retención.
+-- id es AUTO_INCREMENT: la fila se inserta con la franja bloqueada.
+-- reserva_id no tiene clave foránea: la reserva puede pasar al histórico.
+-- ========================================
+
+CREATE TABLE eventos_reserva (
+                                 id BIGINT PRIMARY KEY AUTO_INCREMENT,
+                                 tipo VARCHAR(20) NOT NULL,
+                                 reserva_id BIGINT NOT NULL,
+                                 usuario_id BIGINT NOT NULL,
+                                 servicio_id BIGINT NOT NULL,
+                                 franja_id BIGINT,
+                                 franja_anterior_id BIGINT,
+                                 fecha DATE NOT NULL,
+                                 hora_inicio TIME NOT NULL,
+                                 hora_fin TIME NOT NULL,
+                                 creado_en TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                 procesado_en TIMESTAMP NULL,
+
+                                 FOREIGN KEY (usuario_id) REFERENCES usuarios(id) ON DELETE RESTRICT,
+                                 FOREIGN KEY (servicio_id) REFERENCES servicios(id) ON DELETE RESTRICT,
+
+                                 CHECK (tipo IN ('CREADA', 'CONFIRMADA', 'COMPLETADA', 'CANCELADA', 'MODIFICADA')),
+
+                                 INDEX idx_eventos_reserva_pendientes (procesado_en, id),
+                                 INDEX idx_eventos_reserva_reserva (reserva_id)
+);
@@ -0,0 +1,11 @@
+-- ========================================
+-- BEAUTYBOOKING - RECORDATORIOS DE CITAS
+-- ========================================
+-- Instante en que se envió el recordatorio de la reserva (NULL si no se ha
+-- enviado). Se marca en la misma transacción que selecciona la reserva
+-- para recordarla, de modo que un reinicio no vuelve a enviarlo.
+-- Las reservas pendientes de recordar se buscan por rango sobre
+-- idx_reservas_fecha_hora (fecha, hora_inicio).
+-- ========================================
+
+ALTER TABLE reservas ADD COLUMN recordatorio_enviado_en TIMESTAMP NULL;
@@ -0,0 +1,25 @@
+-- ========================================
+-- BEAUTYBOOKING - LISTA DE ESPERA DE FRANJAS
+-- ========================================
+-- Clientes esperando plaza en una franja completa, en orden de llegada (id).
+-- Al cancelarse una reserva, la plaza liberada pasa al primero de la lista
+-- en la misma transacción: idx_lista_espera_franja (franja_id, id) da la
+-- cabeza de la cola con una sola lectura de índice.
+-- id es AUTO_INCREMENT: la fila se inserta con la franja bloqueada.
+-- ========================================
+
+CREATE TABLE lista_espera (
+                              id BIGINT PRIMARY KEY AUTO_INCREMENT,
+                              franja_id BIGINT NOT NULL,
+                              usuario_id BIGINT NOT NULL,
+                              notas TEXT,
+                              creado_en TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+                              FOREIGN KEY (franja_id) REFERENCES franjas_horarias(id) ON DELETE CASCADE,
+                              FOREIGN KEY (usuario_id) REFERENCES usuarios(id) ON DELETE CASCADE,
+
+                              UNIQUE KEY uk_lista_espera_franja_usuario (franja_id, usuario_id),
+
+                              INDEX idx_lista_espera_franja (franja_id, id),
+                              INDEX idx_lista_espera_usuario (usuario_id)
+);
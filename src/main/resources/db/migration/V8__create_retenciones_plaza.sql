@@ -0,0 +1,25 @@
+-- ========================================
+-- BEAUTYBOOKING - RETENCIONES DE PLAZA
+-- ========================================
+-- Reserva en dos fases: el cliente retiene una plaza de la franja (se descuenta
+-- de plazas_disponibles) y la confirma antes de expira_en. Las retenciones
+-- caducadas se liberan por lotes recorriendo idx_retenciones_plaza_expira.
+-- id es AUTO_INCREMENT: la fila se inserta con la franja bloqueada.
+-- ========================================
+
+CREATE TABLE retenciones_plaza (
+                                   id BIGINT PRIMARY KEY AUTO_INCREMENT,
+                                   franja_id BIGINT NOT NULL,
+                                   usuario_id BIGINT NOT NULL,
+                                   notas TEXT,
+                                   expira_en TIMESTAMP NOT NULL,
+                                   creado_en TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+                                   FOREIGN KEY (franja_id) REFERENCES franjas_horarias(id) ON DELETE CASCADE,
+                                   FOREIGN KEY (usuario_id) REFERENCES usuarios(id) ON DELETE CASCADE,
+
+                                   UNIQUE KEY uk_retenciones_plaza_franja_usuario (franja_id, usuario_id),
+
+                                   INDEX idx_retenciones_plaza_expira (expira_en, id),
+                                   INDEX idx_retenciones_plaza_usuario (usuario_id)
+);
@@ -0,0 +1,11 @@
+-- ========================================
+-- BEAUTYBOOKING - IDS DE USUARIOS CON AUTO_INCREMENT
+-- ========================================
+-- Los usuarios vuelven a tomar el id del AUTO_INCREMENT de la tabla: se
+-- registran de uno en uno (a veces dentro de la transacción de una reserva)
+-- y reservar un bloque en secuencias_id necesita una segunda conexión del
+-- pool. MySQL ya ha avanzado el AUTO_INCREMENT por encima de los ids
+-- insertados con el generador de tabla, así que no se repiten.
+-- ========================================
+
+DELETE FROM secuencias_id WHERE nombre = 'usuarios';
@@ -0,0 +1,73 @@
+package com.beautybooking.service;
+
+import com.beautybooking.dto.request.ReservaRequest;
+import com.beautybooking.dto.response.ReservaResponse;
+import com.beautybooking.model.FranjaHoraria;
+import com.beautybooking.repository.FranjaHorariaRepository;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test de las notificaciones por email contra un servidor SMTP en memoria
+ * (GreenMail en localhost:3025).
+ *
+ * Recorre el camino completo: la reserva registra su evento, el relay lo
+ * publica, la notificación se encola al confirmar el lote y el hilo emisor
+ * la envía por SMTP.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:notificaciones;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO",
+        "app.notificaciones.habilitadas=true",
+        "app.reservas.eventos.intervalo-ms=100",
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025"
+})
+@ActiveProfiles("dev")
+class NotificacionesReservaServiceTest {
+
+    @RegisterExtension
+    static final GreenMailExtension SMTP = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private FranjaHorariaRepository franjaRepository;
+
+    @Test
+    void enviaEmailAlCrearReserva() throws Exception {
+        LocalDate manana = LocalDate.now().plusDays(1);
+        FranjaHoraria franja = franjaRepository.findByFechaBetweenOrderByFechaAscHoraInicioAsc(manana, manana).get(0);
+
+        ReservaResponse reserva = reservaService.createReserva(
+                "maria.garcia@example.com", new ReservaRequest(franja.getId(), null, null));
+
+        assertThat(SMTP.waitForIncomingEmail(10_000, 1)).isTrue();
+
+        MimeMessage[] recibidos = SMTP.getReceivedMessages();
+        assertThat(recibidos).hasSize(1);
+        assertThat(recibidos[0].getAllRecipients()[0].toString()).isEqualTo("maria.garcia@example.com");
+        assertThat(recibidos[0].getSubject()).startsWith("BeautyBooking - ");
+        assertThat(GreenMailUtil.getBody(recibidos[0])).contains("Reserva: #" + reserva.getId());
+    }
+}
@@ -0,0 +1,89 @@
+package com.beautybooking.service;
+
+import com.beautybooking.dto.request.ReservaRequest;
+import com.beautybooking.model.EventoReserva;
+import com.beautybooking.model.FranjaHoraria;
+import com.beautybooking.repository.EventoReservaRepository;
+import com.beautybooking.repository.FranjaHorariaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test del relay de eventos con la cola de notificaciones llena.
+ *
+ * La cola admite una notificación y el SMTP no responde (el emisor se queda
+ * esperando entre reintentos), así que de tres eventos solo caben uno o dos:
+ * el resto debe seguir pendiente, y siempre los más recientes.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:relay;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO",
+        "app.notificaciones.habilitadas=true",
+        "app.notificaciones.capacidad-cola=1",
+        "app.notificaciones.espera-ms=60000",
+        "app.notificaciones.espera-max-ms=120000",
+        "app.reservas.eventos.intervalo-ms=3600000",
+        "spring.mail.host=localhost",
+        "spring.mail.port=3026"
+})
+@ActiveProfiles("dev")
+class RelayEventosReservaServiceTest {
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private RelayEventosReservaService relay;
+
+    @Autowired
+    private FranjaHorariaRepository franjaRepository;
+
+    @Autowired
+    private EventoReservaRepository eventoRepository;
+
+    @Test
+    void dejaPendientesLosEventosQueNoCabenEnLaCola() {
+        LocalDate manana = LocalDate.now().plusDays(1);
+        List<FranjaHoraria> franjas = franjaRepository.findByFechaBetweenOrderByFechaAscHoraInicioAsc(manana, manana);
+        Long servicioId = franjas.get(0).getServicio().getId();
+        List<FranjaHoraria> delServicio = franjas.stream()
+                .filter(franja -> franja.getServicio().getId().equals(servicioId))
+                .toList();
+
+        // Franjas alternas del mismo servicio: no se solapan entre sí
+        for (int i = 0; i < 6; i += 2) {
+            reservaService.createReserva("maria.garcia@example.com",
+                    new ReservaRequest(delServicio.get(i).getId(), null, null));
+        }
+
+        relay.publicarPendientes();
+
+        Map<Boolean, List<Long>> porEstado = eventoRepository.findAll().stream()
+                .collect(Collectors.partitioningBy(
+                        evento -> evento.getProcesadoEn() != null,
+                        Collectors.mapping(EventoReserva::getId, Collectors.toList())));
+        List<Long> procesados = porEstado.get(true);
+        List<Long> pendientes = porEstado.get(false);
+
+        assertThat(procesados).isNotEmpty();
+        assertThat(pendientes).isNotEmpty();
+        assertThat(procesados.size() + pendientes.size()).isEqualTo(3);
+        assertThat(procesados.stream().mapToLong(Long::longValue).max().getAsLong())
+                .isLessThan(pendientes.stream().mapToLong(Long::longValue).min().getAsLong());
+    }
+}
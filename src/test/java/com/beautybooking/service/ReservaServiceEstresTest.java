@@ -0,0 +1,242 @@
+package com.beautybooking.service;
+
+import com.beautybooking.dto.request.ReservaRequest;
+import com.beautybooking.dto.response.DescuadrePlazasResponse;
+import com.beautybooking.exception.BusinessException;
+import com.beautybooking.model.FranjaHoraria;
+import com.beautybooking.model.Servicio;
+import com.beautybooking.model.Usuario;
+import com.beautybooking.model.enums.EstadoReserva;
+import com.beautybooking.model.enums.RolUsuario;
+import com.beautybooking.repository.FranjaHorariaRepository;
+import com.beautybooking.repository.ReservaRepository;
+import com.beautybooking.repository.ServicioRepository;
+import com.beautybooking.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de estrés de createReserva con reservas concurrentes.
+ *
+ * Arranca la aplicación con el perfil dev (H2 en modo MySQL, base propia),
+ * crea unas pocas franjas con aforo de 1 a 5 y lanza miles de reservas a la
+ * vez, cada una en su hilo virtual y de un usuario distinto, contra esas
+ * franjas. Al terminar informa del rendimiento (reservas/s, latencia p50/p99,
+ * espera del bloqueo pesimista, métrica reservas.bloqueo.espera, y espera de
+ * conexión del pool, hikaricp.connections.acquire) y comprueba que no hay
+ * overbooking ni plazas perdidas:
+ * - Cada franja: plazasTotales - plazasDisponibles = sus reservas activas
+ * - findDescuadresPlazas no devuelve ninguna franja
+ *
+ * Va fuera del build normal (@Tag("estres")); se lanza con el perfil estres:
+ *   mvn -P estres test
+ *   mvn -P estres test -Destres.reservas=10000 -Dapp.reservas.estrategia-plazas=CONDICIONAL
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:estres;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "logging.level.org.springframework.web=INFO",
+        "logging.level.com.beautybooking=INFO",
+        "app.reservas.eventos.habilitado=false",
+        "app.reservas.retenciones.intervalo-ms=3600000",
+        "app.reservas.contador-plazas.recarga-ms=3600000"
+})
+@ActiveProfiles("dev")
+@Tag("estres")
+@Slf4j
+class ReservaServiceEstresTest {
+
+    // Reservas lanzadas a la vez (una por usuario), configurable con -Destres.reservas
+    private static final int RESERVAS = Integer.getInteger("estres.reservas", 3000);
+
+    // Aforo de cada franja; la mayoría de las reservas se quedan sin plaza
+    private static final int[] AFOROS = {1, 2, 3, 4, 5, 1, 3, 5};
+
+    // Espera máxima a que terminen todas las reservas
+    private static final long ESPERA_MAXIMA_SEGUNDOS = 120;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private FranjaHorariaRepository franjaRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.reservas.estrategia-plazas:PESIMISTA}")
+    private String estrategiaPlazas;
+
+    @Test
+    void reservasConcurrentesSinOverbooking() throws InterruptedException {
+        LocalDate fecha = LocalDate.now().plusMonths(1);
+        List<FranjaHoraria> franjas = crearFranjas(fecha);
+        List<String> emails = crearUsuarios();
+
+        Timer esperaBloqueo = meterRegistry.get("reservas.bloqueo.espera").timer();
+        long bloqueosAntes = esperaBloqueo.count();
+        double esperaAntesMs = esperaBloqueo.totalTime(TimeUnit.MILLISECONDS);
+        Timer esperaConexion = meterRegistry.get("hikaricp.connections.acquire").timer();
+        double esperaConexionAntesMs = esperaConexion.totalTime(TimeUnit.MILLISECONDS);
+
+        long[] latenciasNs = new long[RESERVAS];
+        AtomicInteger creadas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        Map<String, AtomicInteger> errores = new ConcurrentHashMap<>();
+        CountDownLatch salida = new CountDownLatch(1);
+
+        long inicio;
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < RESERVAS; i++) {
+                int indice = i;
+                hilos.submit(() -> {
+                    salida.await();
+                    ReservaRequest request = new ReservaRequest(
+                            franjas.get(indice % franjas.size()).getId(), null, null);
+                    long antes = System.nanoTime();
+                    try {
+                        reservaService.createReserva(emails.get(indice), request);
+                        creadas.incrementAndGet();
+                    } catch (BusinessException e) {
+                        rechazadas.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        errores.computeIfAbsent(e.getClass().getSimpleName(), clase -> new AtomicInteger())
+                                .incrementAndGet();
+                    } finally {
+                        latenciasNs[indice] = System.nanoTime() - antes;
+                    }
+                    return null;
+                });
+            }
+
+            inicio = System.nanoTime();
+            salida.countDown();
+            hilos.shutdown();
+            assertThat(hilos.awaitTermination(ESPERA_MAXIMA_SEGUNDOS, TimeUnit.SECONDS))
+                    .as("Reservas terminadas en %d s", ESPERA_MAXIMA_SEGUNDOS)
+                    .isTrue();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        long bloqueos = esperaBloqueo.count() - bloqueosAntes;
+        double esperaMs = esperaBloqueo.totalTime(TimeUnit.MILLISECONDS) - esperaAntesMs;
+        double esperaConexionMs = esperaConexion.totalTime(TimeUnit.MILLISECONDS) - esperaConexionAntesMs;
+        Arrays.sort(latenciasNs);
+
+        log.info("Estrés createReserva ({}): {} reservas contra {} franjas ({} plazas) en {} s",
+                estrategiaPlazas, RESERVAS, franjas.size(), Arrays.stream(AFOROS).sum(),
+                String.format("%.2f", segundos));
+        log.info("  Rendimiento: {} reservas/s, latencia p50 {} ms, p99 {} ms, máx {} ms",
+                String.format("%.0f", RESERVAS / segundos), milisegundos(percentil(latenciasNs, 0.50)),
+                milisegundos(percentil(latenciasNs, 0.99)), milisegundos(latenciasNs[RESERVAS - 1]));
+        log.info("  Espera de bloqueo: {} bloqueos, media {} ms, máx {} ms, total {} ms",
+                bloqueos, String.format("%.2f", bloqueos == 0 ? 0 : esperaMs / bloqueos),
+                String.format("%.2f", esperaBloqueo.max(TimeUnit.MILLISECONDS)), String.format("%.0f", esperaMs));
+        log.info("  Espera de conexión del pool: máx {} ms, total {} ms",
+                String.format("%.2f", esperaConexion.max(TimeUnit.MILLISECONDS)),
+                String.format("%.0f", esperaConexionMs));
+        log.info("  Resultado: {} creadas, {} rechazadas, otros errores {}", creadas, rechazadas, errores);
+
+        // Invariante por franja: plazas ocupadas = reservas activas
+        Map<Long, Long> reservasPorFranja = reservaRepository.findAll().stream()
+                .filter(reserva -> reserva.getEstado() != EstadoReserva.CANCELADA)
+                .filter(reserva -> reserva.getFecha().equals(fecha))
+                .collect(Collectors.groupingBy(reserva -> reserva.getFranja().getId(), Collectors.counting()));
+
+        int ocupadas = 0;
+        for (FranjaHoraria franja : franjaRepository.findAllById(franjas.stream().map(FranjaHoraria::getId).toList())) {
+            int ocupadasFranja = franja.getPlazasTotales() - franja.getPlazasDisponibles();
+            assertThat(franja.getPlazasDisponibles()).as("Plazas disponibles de la franja %d", franja.getId())
+                    .isGreaterThanOrEqualTo(0);
+            assertThat((long) ocupadasFranja).as("Plazas ocupadas de la franja %d", franja.getId())
+                    .isEqualTo(reservasPorFranja.getOrDefault(franja.getId(), 0L));
+            ocupadas += ocupadasFranja;
+        }
+
+        assertThat(creadas.get()).isEqualTo(ocupadas);
+        assertThat(creadas.get() + rechazadas.get() + errores.values().stream().mapToInt(AtomicInteger::get).sum())
+                .isEqualTo(RESERVAS);
+
+        List<DescuadrePlazasResponse> descuadres = franjaRepository.findDescuadresPlazas(fecha, fecha);
+        assertThat(descuadres).as("Franjas descuadradas").isEmpty();
+    }
+
+    /**
+     * Crea un servicio de prueba y una franja por aforo, a horas distintas del mismo día.
+     */
+    private List<FranjaHoraria> crearFranjas(LocalDate fecha) {
+        Servicio servicio = new Servicio();
+        servicio.setNombre("Servicio de estrés");
+        servicio.setDuracionMinutos(60);
+        servicio.setPrecio(new BigDecimal("25.00"));
+        servicio.setAforoMaximo(Arrays.stream(AFOROS).max().orElseThrow());
+        servicio = servicioRepository.save(servicio);
+
+        List<FranjaHoraria> franjas = new ArrayList<>();
+        for (int i = 0; i < AFOROS.length; i++) {
+            FranjaHoraria franja = new FranjaHoraria(servicio, fecha, LocalTime.of(9 + i, 0));
+            franja.setPlazasTotales(AFOROS[i]);
+            franja.setPlazasDisponibles(AFOROS[i]);
+            franjas.add(franja);
+        }
+        return franjaRepository.saveAll(franjas);
+    }
+
+    /**
+     * Crea un cliente por reserva para que ninguna se rechace por duplicada o solapada.
+     */
+    private List<String> crearUsuarios() {
+        List<Usuario> usuarios = new ArrayList<>(RESERVAS);
+        for (int i = 0; i < RESERVAS; i++) {
+            usuarios.add(new Usuario("Cliente " + i, "estres" + i + "@example.com", "sin-login", RolUsuario.CLIENTE));
+        }
+        return usuarioRepository.saveAll(usuarios).stream().map(Usuario::getEmail).toList();
+    }
+
+    private static long percentil(long[] ordenados, double percentil) {
+        return ordenados[(int) Math.ceil(percentil * ordenados.length) - 1];
+    }
+
+    private static String milisegundos(long nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+}
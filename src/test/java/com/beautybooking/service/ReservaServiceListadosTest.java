@@ -0,0 +1,165 @@
+package com.beautybooking.service;
+
+import com.beautybooking.dto.response.PaginaResponse;
+import com.beautybooking.dto.response.ReservaResponse;
+import com.beautybooking.model.FranjaHoraria;
+import com.beautybooking.model.Reserva;
+import com.beautybooking.model.Usuario;
+import com.beautybooking.model.enums.EstadoReserva;
+import com.beautybooking.repository.FranjaHorariaRepository;
+import com.beautybooking.repository.ReservaRepository;
+import com.beautybooking.repository.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test del número de consultas de los listados de reservas.
+ *
+ * Cada listado debe resolverse con un número fijo de sentencias SQL, sin
+ * cargas perezosas de usuario o servicio por cada reserva (N+1). Las
+ * sentencias se cuentan con las estadísticas de Hibernate y las tareas
+ * programadas que consultan la BD están desactivadas para no sumar las suyas.
+ *
+ * @author Andres Eduardo Parada Prieto
+ * @version 1.0
+ * @since 2025
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:listados;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO",
+        "app.reservas.eventos.habilitado=false",
+        "app.reservas.retenciones.intervalo-ms=3600000",
+        "app.reservas.contador-plazas.recarga-ms=3600000"
+})
+@ActiveProfiles("dev")
+class ReservaServiceListadosTest {
+
+    private static final String EMAIL = "maria.garcia@example.com";
+    private static final int RESERVAS_POR_USUARIO = 12;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private FranjaHorariaRepository franjaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Crea reservas de hoy en adelante para los dos clientes de prueba,
+     * directamente en el repositorio (una vez por contexto).
+     */
+    @BeforeEach
+    void crearReservas() {
+        if (reservaRepository.count() > 0) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> guardarReservas());
+    }
+
+    private void guardarReservas() {
+        LocalDate hoy = LocalDate.now();
+        List<FranjaHoraria> franjas = franjaRepository.findByFechaBetweenOrderByFechaAscHoraInicioAsc(hoy, hoy.plusDays(6));
+        List<Usuario> clientes = List.of(
+                usuarioRepository.findByEmail(EMAIL).orElseThrow(),
+                usuarioRepository.findByEmail("carlos.rodriguez@example.com").orElseThrow()
+        );
+
+        for (int i = 0; i < RESERVAS_POR_USUARIO * clientes.size(); i++) {
+            FranjaHoraria franja = franjas.get(i);
+            Reserva reserva = new Reserva();
+            reserva.setUsuario(clientes.get(i % clientes.size()));
+            reserva.setServicio(franja.getServicio());
+            reserva.setFranja(franja);
+            reserva.setFecha(franja.getFecha());
+            reserva.setHoraInicio(franja.getHoraInicio());
+            reserva.setHoraFin(franja.getHoraFin());
+            reserva.setEstado(i % 3 == 0 ? EstadoReserva.CONFIRMADA : EstadoReserva.PENDIENTE);
+            reserva.setPrecioFinal(franja.getServicio().getPrecio());
+            reservaRepository.save(reserva);
+        }
+    }
+
+    @Test
+    void misReservasEnTresSentencias() {
+        // Usuario, reservas activas y reservas archivadas
+        List<ReservaResponse> reservas = contarSentencias(3, () -> reservaService.getMisReservas(EMAIL));
+
+        assertThat(reservas).hasSize(RESERVAS_POR_USUARIO);
+        assertThat(reservas).allSatisfy(reserva -> {
+            assertThat(reserva.getUsuarioEmail()).isEqualTo(EMAIL);
+            assertThat(reserva.getServicioNombre()).isNotBlank();
+        });
+    }
+
+    @Test
+    void reservasDeHoyEnUnaSentencia() {
+        List<ReservaResponse> reservas = contarSentencias(1, () -> reservaService.getReservasDeHoy());
+
+        assertThat(reservas).isNotEmpty();
+        assertThat(reservas).allSatisfy(reserva -> {
+            assertThat(reserva.getFecha()).isEqualTo(LocalDate.now());
+            assertThat(reserva.getUsuarioNombre()).isNotBlank();
+        });
+    }
+
+    @Test
+    void reservasPaginadasEnUnaSentencia() {
+        PaginaResponse<ReservaResponse> pagina = contarSentencias(1, () ->
+                reservaService.getReservasPaginadas(null, null, null, null, null, null, 10));
+
+        assertThat(pagina.getContenido()).hasSize(10);
+        assertThat(pagina.getSiguienteCursor()).isNotNull();
+
+        PaginaResponse<ReservaResponse> siguiente = contarSentencias(1, () ->
+                reservaService.getReservasPaginadas(null, null, null, null, null, pagina.getSiguienteCursor(), 10));
+
+        assertThat(siguiente.getContenido()).hasSize(10);
+    }
+
+    /**
+     * Ejecuta la consulta y comprueba cuántas sentencias SQL ha preparado.
+     *
+     * @param esperadas Sentencias que debe ejecutar, sea cual sea el número de reservas
+     * @param consulta Listado a ejecutar
+     * @return Resultado del listado
+     */
+    private <T> T contarSentencias(long esperadas, Supplier<T> consulta) {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        T resultado = consulta.get();
+
+        assertThat(estadisticas.getPrepareStatementCount())
+                .as("Sentencias SQL del listado")
+                .isEqualTo(esperadas);
+        return resultado;
+    }
+}